@@ -0,0 +1,211 @@
+package com.sportygroup.f1betting.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The {@link BetRepository} access paths on a seeded H2 database (PostgreSQL mode, as in the
+ * application), once with the original single-column indexes and once with the composite
+ * indexes declared on {@link com.sportygroup.f1betting.entity.Bet}. The query plan of every
+ * statement is printed during setup, so the run shows which index each variant uses.
+ * Run with {@code ./gradlew jmh -PjmhIncludes=BetIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BetIndexBenchmark {
+
+  private static final int EVENTS = 200;
+  private static final int DRIVERS = 20;
+
+  private static final String TABLE = """
+      create table bets (
+        id bigint primary key,
+        user_id bigint not null,
+        event_id bigint not null,
+        driver_id bigint not null,
+        amount bigint not null,
+        odds bigint not null,
+        status varchar(255) not null,
+        version bigint
+      )
+      """;
+
+  private static final List<String> SINGLE_COLUMN = List.of(
+      "create index ix_bet_event on bets (event_id)",
+      "create index ix_bet_status on bets (status)",
+      "create index ix_bet_user on bets (user_id)");
+
+  private static final List<String> COMPOSITE = List.of(
+      "create index ix_bet_event_status_id on bets (event_id, status, id)",
+      "create index ix_bet_event_status_driver on bets (event_id, status, driver_id, user_id, amount, odds)",
+      "alter table bets add constraint uk_bet_user_event unique (user_id, event_id)");
+
+  private static final String COUNT_BY_EVENT_AND_STATUS =
+      "select count(*) from bets where event_id = ? and status = 'PENDING'";
+  private static final String PENDING_CHUNK = """
+      select id, user_id, driver_id, amount, odds from bets
+       where event_id = ? and status = 'PENDING' and id > ?
+       order by id
+       limit 1000
+      """;
+  private static final String SUM_PENDING_PAYOUTS = """
+      select user_id, sum((amount * odds) / 100) from bets
+       where event_id = ? and status = 'PENDING' and driver_id = ?
+       group by user_id
+      """;
+  private static final String EXISTS_BY_USER_AND_EVENT =
+      "select 1 from bets where user_id = ? and event_id = ? fetch first 1 rows only";
+
+  @Param({"single_column", "composite"})
+  String indexes;
+
+  @Param({"1000000"})
+  int bets;
+
+  private Connection connection;
+  private PreparedStatement countByEventAndStatus;
+  private PreparedStatement pendingChunk;
+  private PreparedStatement sumPendingPayouts;
+  private PreparedStatement existsByUserAndEvent;
+  private SplittableRandom random;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:bets_" + indexes + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    try (Statement st = connection.createStatement()) {
+      st.execute("drop table if exists bets");
+      st.execute(TABLE);
+      for (String ddl : "composite".equals(indexes) ? COMPOSITE : SINGLE_COLUMN) {
+        st.execute(ddl);
+      }
+    }
+    seed();
+    try (Statement st = connection.createStatement()) {
+      st.execute("analyze");
+    }
+
+    countByEventAndStatus = connection.prepareStatement(COUNT_BY_EVENT_AND_STATUS);
+    pendingChunk = connection.prepareStatement(PENDING_CHUNK);
+    sumPendingPayouts = connection.prepareStatement(SUM_PENDING_PAYOUTS);
+    existsByUserAndEvent = connection.prepareStatement(EXISTS_BY_USER_AND_EVENT);
+    random = new SplittableRandom(7);
+
+    explain(COUNT_BY_EVENT_AND_STATUS, 1L);
+    explain(PENDING_CHUNK, 1L, 0L);
+    explain(SUM_PENDING_PAYOUTS, 1L, 1L);
+    explain(EXISTS_BY_USER_AND_EVENT, 1L, 1L);
+  }
+
+  /**
+   * Bet {@code i} is on event {@code i % EVENTS} by user {@code i / EVENTS}, so (user, event)
+   * pairs are unique. A quarter of the events are settled.
+   */
+  private void seed() throws SQLException {
+    var seedRandom = new SplittableRandom(42);
+    connection.setAutoCommit(false);
+    try (PreparedStatement ps = connection.prepareStatement(
+        "insert into bets (id, user_id, event_id, driver_id, amount, odds, status, version) values (?, ?, ?, ?, ?, ?, ?, 0)")) {
+      for (int i = 0; i < bets; i++) {
+        long eventId = i % EVENTS;
+        long driverId = seedRandom.nextLong(1, DRIVERS + 1);
+        ps.setLong(1, i + 1L);
+        ps.setLong(2, i / EVENTS);
+        ps.setLong(3, eventId);
+        ps.setLong(4, driverId);
+        ps.setLong(5, seedRandom.nextLong(100, 100_000));
+        ps.setLong(6, seedRandom.nextLong(101, 1_000));
+        ps.setString(7, eventId % 4 != 0 ? "PENDING" : driverId == 1 ? "WON" : "LOST");
+        ps.addBatch();
+        if (i % 10_000 == 9_999) {
+          ps.executeBatch();
+        }
+      }
+      ps.executeBatch();
+    }
+    connection.commit();
+    connection.setAutoCommit(true);
+  }
+
+  private void explain(String sql, Object... args) throws SQLException {
+    try (PreparedStatement ps = connection.prepareStatement("explain " + sql)) {
+      for (int i = 0; i < args.length; i++) {
+        ps.setObject(i + 1, args[i]);
+      }
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        System.out.printf("%n[%s] %s%n", indexes, rs.getString(1).replaceAll("\\s+", " "));
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    try (Statement st = connection.createStatement()) {
+      st.execute("drop table bets");
+    }
+    connection.close();
+  }
+
+  @Benchmark
+  public long countByEventAndStatus() throws SQLException {
+    countByEventAndStatus.setLong(1, openEvent());
+    try (ResultSet rs = countByEventAndStatus.executeQuery()) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  @Benchmark
+  public long pendingChunk() throws SQLException {
+    pendingChunk.setLong(1, openEvent());
+    pendingChunk.setLong(2, random.nextLong(bets / 2));
+    return drain(pendingChunk);
+  }
+
+  @Benchmark
+  public long sumPendingPayouts() throws SQLException {
+    sumPendingPayouts.setLong(1, openEvent());
+    sumPendingPayouts.setLong(2, random.nextLong(1, DRIVERS + 1));
+    return drain(sumPendingPayouts);
+  }
+
+  @Benchmark
+  public long existsByUserAndEvent() throws SQLException {
+    existsByUserAndEvent.setLong(1, random.nextLong(bets / EVENTS));
+    existsByUserAndEvent.setLong(2, random.nextLong(EVENTS));
+    return drain(existsByUserAndEvent);
+  }
+
+  private long openEvent() {
+    long eventId = random.nextLong(EVENTS);
+    return eventId % 4 == 0 ? eventId + 1 : eventId;
+  }
+
+  private static long drain(PreparedStatement ps) throws SQLException {
+    long sum = 0;
+    try (ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        sum += rs.getLong(1);
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,130 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.F1bettingApplication;
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.model.EventOutcome;
+import com.sportygroup.f1betting.model.PlaceBetRequest;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Placement and settlement through the real Spring services, JPA and an embedded H2 database.
+ * Users are seeded with balances large enough to never run out. Every placement goes to a new
+ * event, so the one-bet-per-user-and-event constraint never rejects it; settlement runs on an
+ * event seeded with {@code betsPerEvent} pending bets before each invocation, see
+ * {@link PendingEvent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BettingJpaBenchmark {
+
+  private static final int USERS = 10_000;
+  private static final int BULK_SIZE = 50;
+
+  private ConfigurableApplicationContext context;
+  private BettingService bettingService;
+  private JdbcTemplate jdbcTemplate;
+
+  private final AtomicLong nextEventId = new AtomicLong(1_000_000);
+
+  @Setup(Level.Trial)
+  public void startApplication() {
+    context = new SpringApplicationBuilder(F1bettingApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "spring.sql.init.mode=never",
+            "spring.jpa.properties.hibernate.show_sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "event.api.snapshot.enabled=false",
+            "logging.level.root=WARN")
+        .run();
+    bettingService = context.getBean(BettingService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+    var users = new ArrayList<Object[]>(USERS);
+    for (long id = 1; id <= USERS; id++) {
+      users.add(new Object[]{id, "User", String.valueOf(id), Long.MAX_VALUE / 4});
+    }
+    jdbcTemplate.batchUpdate(
+        "insert into users (id, first_name, last_name, balance, version) values (?, ?, ?, ?, 0)", users);
+    context.getBean(WalletLedger.class).rebuild();
+  }
+
+  @TearDown(Level.Trial)
+  public void stopApplication() {
+    context.close();
+  }
+
+  /**
+   * An event with {@code betsPerEvent} pending bets, seeded before every settlement.
+   */
+  @State(Scope.Thread)
+  public static class PendingEvent {
+
+    @Param({"1000", "10000"})
+    int betsPerEvent;
+
+    long eventId;
+
+    @Setup(Level.Invocation)
+    public void seed(BettingJpaBenchmark benchmark) {
+      eventId = benchmark.nextEventId.incrementAndGet();
+      benchmark.jdbcTemplate.update("insert into events (id, version) values (?, 0)", eventId);
+      var bets = new ArrayList<Object[]>(betsPerEvent);
+      for (long userId = 1; userId <= betsPerEvent; userId++) {
+        bets.add(new Object[]{userId, eventId, 1 + userId % 20});
+      }
+      benchmark.jdbcTemplate.batchUpdate("""
+          insert into bets (id, user_id, event_id, driver_id, amount, odds, status, created_at, version)
+          values (nextval('bets_seq'), ?, ?, ?, 1000, 250, 'PENDING', current_timestamp, 0)
+          """, bets);
+    }
+  }
+
+  @Benchmark
+  public Bet placeBet() {
+    long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    return bettingService.placeBet(request(userId, nextEventId.incrementAndGet()));
+  }
+
+  @Benchmark
+  public List<Bet> placeBetsBulk() {
+    long eventId = nextEventId.incrementAndGet();
+    long firstUser = ThreadLocalRandom.current().nextLong(USERS);
+    var requests = new ArrayList<PlaceBetRequest>(BULK_SIZE);
+    for (int i = 0; i < BULK_SIZE; i++) {
+      requests.add(request(1 + (firstUser + i) % USERS, eventId));
+    }
+    return bettingService.placeBets(requests);
+  }
+
+  @Benchmark
+  public EventOutcome settleOutcome(PendingEvent event) {
+    return bettingService.settleOutcome(event.eventId, 1L);
+  }
+
+  private static PlaceBetRequest request(long userId, long eventId) {
+    return new PlaceBetRequest(userId, eventId, ThreadLocalRandom.current().nextLong(1, 21),
+        new BigDecimal("2.50"), new BigDecimal("10.00"));
+  }
+}
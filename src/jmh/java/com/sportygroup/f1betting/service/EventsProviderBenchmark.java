@@ -0,0 +1,87 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.EventDetails;
+import com.sportygroup.f1betting.model.Session;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link EventsProviderImpl#getAllEvents} against an in-memory {@link OpenF1AsyncClient}, i.e.
+ * the future composition, grouping by meeting and market building without any upstream latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventsProviderBenchmark {
+
+  private static final int DRIVERS = 20;
+
+  @Param({"24", "240"})
+  int sessions;
+
+  @Param({"5"})
+  int sessionsPerMeeting;
+
+  private EventsProviderImpl provider;
+
+  @Setup
+  public void setUp() {
+    provider = new EventsProviderImpl(new InMemoryOpenF1Client(sessions, sessionsPerMeeting));
+  }
+
+  @Benchmark
+  public List<EventDetails> getAllEvents() {
+    return provider.getAllEvents("Race", "2024", null);
+  }
+
+  private static final class InMemoryOpenF1Client implements OpenF1AsyncClient {
+    private final Session[] sessions;
+    private final Map<String, Map<String, Driver[]>> driversByMeeting = new HashMap<>();
+
+    private InMemoryOpenF1Client(int count, int perMeeting) {
+      sessions = new Session[count];
+      for (int i = 0; i < count; i++) {
+        String meetingKey = String.valueOf(i / perMeeting);
+        String sessionKey = String.valueOf(i);
+        sessions[i] = new Session("c", "Circuit", "AT", "1", "Austria", null, null, "+02:00",
+            "Spielberg", meetingKey, sessionKey, "Race", "Race", "2024");
+        var drivers = new Driver[DRIVERS];
+        for (int d = 0; d < DRIVERS; d++) {
+          drivers[d] = new Driver(String.valueOf(d + 1), "Driver " + (d + 1), sessionKey);
+        }
+        driversByMeeting.computeIfAbsent(meetingKey, k -> new HashMap<>()).put(sessionKey, drivers);
+      }
+    }
+
+    @Override
+    public CompletableFuture<Session[]> fetchSessionsAsync(String sessionType, String year, String country) {
+      return CompletableFuture.completedFuture(sessions);
+    }
+
+    @Override
+    public CompletableFuture<Driver[]> fetchDriversBySessionAsync(String sessionKey) {
+      return CompletableFuture.completedFuture(driversByMeeting.values().stream()
+          .map(drivers -> drivers.get(sessionKey))
+          .filter(drivers -> drivers != null)
+          .findFirst()
+          .orElse(new Driver[0]));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Driver[]>> fetchDriversByMeetingAsync(String meetingKey) {
+      return CompletableFuture.completedFuture(driversByMeeting.getOrDefault(meetingKey, Map.of()));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The in-memory part of a placement: reserving the stake in the {@link WalletLedger} and
+ * recording the bet in the {@link EventStatsRegistry}, single-threaded and with four threads
+ * competing for the same wallets and events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PlacementPathsBenchmark {
+
+  private static final long BALANCE = 1_000_000_000_000L;
+  private static final long STAKE = 1_000L;
+
+  @Param({"100", "100000"})
+  int users;
+
+  @Param({"10"})
+  int events;
+
+  private WalletLedger ledger;
+  private EventStatsRegistry stats;
+
+  @Setup
+  public void setUp() {
+    ledger = new WalletLedger(userRepository(users), null);
+    ledger.rebuild();
+    stats = new EventStatsRegistry(null, new SimpleMeterRegistry());
+  }
+
+  @Benchmark
+  public boolean reserveAndRelease() {
+    long userId = ThreadLocalRandom.current().nextLong(1, users + 1);
+    boolean reserved = ledger.tryReserve(userId, STAKE);
+    ledger.releaseAfterCommit(userId, STAKE);
+    return reserved;
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean reserveAndReleaseContended() {
+    return reserveAndRelease();
+  }
+
+  @Benchmark
+  public void recordPlaced() {
+    stats.recordPlaced(List.of(bet()));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void recordPlacedContended() {
+    recordPlaced();
+  }
+
+  private Bet bet() {
+    var random = ThreadLocalRandom.current();
+    return Bet.builder()
+        .user(User.builder().id(random.nextLong(1, users + 1)).build())
+        .event(Event.builder().id(random.nextLong(events)).build())
+        .driverId(random.nextLong(1, 21))
+        .amount(STAKE)
+        .odds(250L)
+        .status(BetStatus.PENDING)
+        .build();
+  }
+
+  /**
+   * Answers {@code findAll} and {@code findById} for users {@code 1..count}; the ledger needs
+   * nothing else.
+   */
+  private static UserRepository userRepository(int count) {
+    return (UserRepository) Proxy.newProxyInstance(
+        UserRepository.class.getClassLoader(),
+        new Class<?>[]{UserRepository.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "findAll" -> LongStream.rangeClosed(1, count).mapToObj(PlacementPathsBenchmark::user).toList();
+          case "findById" -> Optional.of(user((Long) args[0]));
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private static User user(long id) {
+    return User.builder().id(id).balance(BALANCE).build();
+  }
+}
@@ -0,0 +1,84 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.Money;
+import com.sportygroup.f1betting.model.SettlementRow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-user payout aggregation of a settlement chunk: a boxed {@code toMap(..., Double::sum)}
+ * collector as originally used for balances, {@code groupingBy/summingLong}, and the primitive
+ * {@link BalanceDeltas} used by {@link ChunkedSettlementService}.
+ * Run with {@code ./gradlew jmh}; the GC profiler reports allocation per operation
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SettlementAggregationBenchmark {
+
+  private static final long WINNER = 1L;
+
+  @Param({"10000", "100000", "1000000"})
+  int bets;
+
+  /** Bets per user on average; a few heavy bettors are typical for a single race. */
+  @Param({"4"})
+  int betsPerUser;
+
+  List<SettlementRow> rows;
+
+  @Setup
+  public void setUp() {
+    var random = new SplittableRandom(42);
+    int users = Math.max(1, bets / betsPerUser);
+    rows = new ArrayList<>(bets);
+    for (int i = 0; i < bets; i++) {
+      rows.add(new SettlementRow(
+          (long) i + 1,
+          random.nextLong(1, users + 1),
+          random.nextLong(1, 3), // half of the bets are on the winner
+          random.nextLong(100, 100_000),
+          random.nextLong(101, 1_000)));
+    }
+  }
+
+  @Benchmark
+  public Map<Long, Double> boxedDoubleCollector() {
+    return rows.stream()
+        .filter(row -> row.driverId() == WINNER)
+        .collect(Collectors.toMap(
+            SettlementRow::userId,
+            row -> row.amount() / 100.0 * (row.odds() / 100.0),
+            Double::sum
+        ));
+  }
+
+  @Benchmark
+  public Map<Long, Long> groupingBySummingLong() {
+    return rows.stream()
+        .filter(row -> row.driverId() == WINNER)
+        .collect(Collectors.groupingBy(
+            SettlementRow::userId,
+            Collectors.summingLong(row -> Money.payout(row.amount(), row.odds()))
+        ));
+  }
+
+  @Benchmark
+  public BalanceDeltas primitiveOpenAddressing() {
+    return ChunkedSettlementService.computePayouts(rows, WINNER);
+  }
+}
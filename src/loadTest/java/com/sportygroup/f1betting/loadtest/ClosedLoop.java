@@ -0,0 +1,61 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@code threads} workers that each call the operation back to back until the duration
+ * is over, recording the latency of every successful call. Failures are counted, not timed.
+ */
+final class ClosedLoop {
+
+  @FunctionalInterface
+  interface Operation {
+    /** @return {@code false} if the call failed */
+    boolean call(long sequence) throws Exception;
+  }
+
+  private ClosedLoop() {
+  }
+
+  static List<Samples> run(int threads, Duration duration, Operation operation) throws Exception {
+    long deadline = System.nanoTime() + duration.toNanos();
+    var sequence = new AtomicLong();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      var futures = new ArrayList<Future<Samples>>(threads);
+      for (int t = 0; t < threads; t++) {
+        futures.add(pool.submit(() -> {
+          var samples = new Samples();
+          while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+              ok = operation.call(sequence.getAndIncrement());
+            } catch (Exception e) {
+              ok = false;
+            }
+            if (ok) {
+              samples.record(System.nanoTime() - start);
+            } else {
+              samples.error();
+            }
+          }
+          return samples;
+        }));
+      }
+      var all = new ArrayList<Samples>(threads);
+      for (Future<Samples> future : futures) {
+        all.add(future.get());
+      }
+      return all;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
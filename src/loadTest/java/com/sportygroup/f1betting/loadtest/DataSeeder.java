@@ -0,0 +1,69 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Writes users, events and pending bets straight into the database with JDBC batches, which is
+ * orders of magnitude faster than going through the API and keeps millions of rows feasible.
+ * Bet ids come from {@code bets_seq} like the application's own inserts.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DataSeeder {
+
+  private static final int BATCH = 10_000;
+  private static final int DRIVERS = 20;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  void seedUsers(long users, long balance) {
+    long start = System.nanoTime();
+    var rows = new ArrayList<Object[]>(BATCH);
+    for (long id = 1; id <= users; id++) {
+      rows.add(new Object[]{id, "Load", "User " + id, balance});
+      if (rows.size() == BATCH) {
+        insertUsers(rows);
+      }
+    }
+    insertUsers(rows);
+    log.info("Seeded {} users in {} ms", users, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Seeds an open event with one pending bet by each of the users {@code 1..bets}.
+   */
+  void seedEvent(long eventId, long bets) {
+    long start = System.nanoTime();
+    jdbcTemplate.update("insert into events (id, version) values (?, 0)", eventId);
+    var random = new SplittableRandom(eventId);
+    var rows = new ArrayList<Object[]>(BATCH);
+    for (long userId = 1; userId <= bets; userId++) {
+      rows.add(new Object[]{userId, eventId, random.nextLong(1, DRIVERS + 1),
+          random.nextLong(100, 10_000), random.nextLong(110, 1_000)});
+      if (rows.size() == BATCH) {
+        insertBets(rows);
+      }
+    }
+    insertBets(rows);
+    log.info("Seeded event {} with {} bets in {} ms", eventId, bets, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private void insertUsers(List<Object[]> rows) {
+    jdbcTemplate.batchUpdate(
+        "insert into users (id, first_name, last_name, balance, version) values (?, ?, ?, ?, 0)", rows);
+    rows.clear();
+  }
+
+  private void insertBets(List<Object[]> rows) {
+    jdbcTemplate.batchUpdate("""
+        insert into bets (id, user_id, event_id, driver_id, amount, odds, status, created_at, version)
+        values (nextval('bets_seq'), ?, ?, ?, ?, ?, 'PENDING', current_timestamp, 0)
+        """, rows);
+    rows.clear();
+  }
+}
@@ -0,0 +1,248 @@
+package com.sportygroup.f1betting.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.f1betting.F1bettingApplication;
+import com.sportygroup.f1betting.service.EventStatsRegistry;
+import com.sportygroup.f1betting.service.WalletLedger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Offline load test: starts the application on a random port against an in-memory database and
+ * the {@link OpenF1Stub}, seeds bettors, runs the selected scenarios over HTTP and prints
+ * throughput, latency percentiles and peak platform threads. Run with {@code ./gradlew loadTest};
+ * see {@link LoadTestOptions} for the knobs.
+ */
+public final class LoadTest {
+
+  private static final long BALANCE = 1_000_000_000L;
+  private static final long SETTLED_EVENT_ID = 1L;
+  private static final long FIRST_STORM_EVENT_ID = 1_000L;
+  private static final long FIRST_MIXED_EVENT_ID = 1_000_000L;
+
+  private final LoadTestOptions options;
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private ConfigurableApplicationContext context;
+  private String api;
+  private String threadMode;
+
+  private LoadTest(LoadTestOptions options) {
+    this.options = options;
+  }
+
+  public static void main(String[] args) throws Exception {
+    var options = LoadTestOptions.parse(args);
+    var reports = new LoadTest(options).run();
+    reports.forEach(report -> System.out.print(report.format()));
+    System.exit(0);
+  }
+
+  private List<Report> run() throws Exception {
+    try (var stub = new OpenF1Stub(options.stubLatency(), options.stub429Rate(), 24, 5)) {
+      var reports = new ArrayList<Report>();
+      for (String mode : options.threadModes()) {
+        threadMode = mode;
+        start(stub);
+        try {
+          seed();
+          if (options.scenarios().contains("placement")) {
+            reports.addAll(sampleThreads(() -> List.of(placementStorm())));
+          }
+          if (options.scenarios().contains("settlement")) {
+            reports.add(settlement());
+          }
+          if (options.scenarios().contains("listing")) {
+            reports.addAll(sampleThreads(() -> List.of(eventListing(stub))));
+          }
+          if (options.scenarios().contains("mixed")) {
+            reports.addAll(sampleThreads(this::mixed));
+          }
+        } finally {
+          context.close();
+        }
+      }
+      return reports;
+    }
+  }
+
+  /**
+   * Every thread mode gets its own database, so the runs don't see each other's data.
+   */
+  private void start(OpenF1Stub stub) {
+    var properties = new HashMap<String, Object>();
+    properties.put("server.port", 0);
+    properties.put("spring.datasource.url",
+        "jdbc:h2:mem:loadtest-" + threadMode + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+    properties.put("spring.threads.virtual.enabled", "virtual".equals(threadMode));
+    properties.put("spring.sql.init.mode", "never");
+    properties.put("spring.jpa.properties.hibernate.show_sql", false);
+    properties.put("spring.jpa.properties.hibernate.format_sql", false);
+    properties.put("event.api.url", stub.baseUrl());
+    properties.put("event.api.snapshot.enabled", false);
+    properties.put("logging.level.root", "WARN");
+    properties.put("logging.level.com.sportygroup.f1betting.loadtest", "INFO");
+    properties.putAll(options.applicationProperties());
+
+    context = new SpringApplicationBuilder(F1bettingApplication.class).properties(properties).run();
+    api = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+  }
+
+  private void seed() {
+    var seeder = new DataSeeder(context.getBean(JdbcTemplate.class));
+    seeder.seedUsers(options.seededUsers(), BALANCE);
+    if (options.scenarios().contains("settlement")) {
+      seeder.seedEvent(SETTLED_EVENT_ID, options.settlementBets());
+    }
+    context.getBean(WalletLedger.class).rebuild();
+    context.getBean(EventStatsRegistry.class).rebuild();
+  }
+
+  /**
+   * Every user bets on the storm events in turn, so no request is a duplicate and the storm
+   * measures successful placements.
+   */
+  private Report placementStorm() throws Exception {
+    var statuses = new ConcurrentHashMap<Integer, LongAdder>();
+    long start = System.nanoTime();
+    var samples = ClosedLoop.run(options.threads(), options.duration(),
+        sequence -> placeBet(FIRST_STORM_EVENT_ID, sequence, statuses));
+    return Report.of(label("placement storm (" + options.threads() + " threads)"), samples,
+        Duration.ofNanos(System.nanoTime() - start), Map.of("statuses", counts(statuses)));
+  }
+
+  /**
+   * A quarter of the threads list events, which blocks on the slow and throttling OpenF1 stub,
+   * while the rest place bets. Shows whether slow catalogue requests starve placements.
+   */
+  private List<Report> mixed() throws Exception {
+    int listers = Math.max(1, options.threads() / 4);
+    int bettors = Math.max(1, options.threads() - listers);
+    var statuses = new ConcurrentHashMap<Integer, LongAdder>();
+    var background = Executors.newSingleThreadExecutor();
+    try {
+      long start = System.nanoTime();
+      var listing = background.submit(() -> ClosedLoop.run(listers, options.duration(), this::listEvents));
+      var placing = ClosedLoop.run(bettors, options.duration(),
+          sequence -> placeBet(FIRST_MIXED_EVENT_ID, sequence, statuses));
+      var listed = listing.get();
+      var wallTime = Duration.ofNanos(System.nanoTime() - start);
+      return List.of(
+          Report.of(label("mixed: placement (" + bettors + " threads)"), placing, wallTime,
+              Map.of("statuses", counts(statuses))),
+          Report.of(label("mixed: event listing (" + listers + " threads)"), listed, wallTime, Map.of()));
+    } finally {
+      background.shutdownNow();
+    }
+  }
+
+  private boolean placeBet(long firstEventId, long sequence, Map<Integer, LongAdder> statuses) throws Exception {
+    long users = options.users();
+    var body = Map.of(
+        "userId", 1 + sequence % users,
+        "eventId", firstEventId + sequence / users,
+        "driverId", 1 + sequence % 20,
+        "odds", 2.5,
+        "amount", 10);
+    int status = send(post("/bets", body)).statusCode();
+    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    return status == 201;
+  }
+
+  private Report settlement() throws Exception {
+    var mode = options.settlementMode();
+    var samples = new Samples();
+    long start = System.nanoTime();
+    var response = send(post("/events/" + SETTLED_EVENT_ID + "/outcome?mode=" + mode, Map.of("winnerId", 1)));
+    if ("ASYNC".equals(mode) && response.statusCode() == 202) {
+      var location = response.headers().firstValue("Location").orElseThrow();
+      response = awaitCompletion(location.replaceFirst("^/api", ""));
+    }
+    long elapsed = System.nanoTime() - start;
+    if (response.statusCode() == 200) {
+      samples.record(elapsed);
+    } else {
+      samples.error();
+    }
+    double betsPerSecond = options.settlementBets() / (elapsed / 1e9);
+    return Report.of(label("settlement of " + options.settlementBets() + " bets (" + mode + ")"), List.of(samples),
+        Duration.ofNanos(elapsed), Map.of(
+            "status", response.statusCode(),
+            "bets/s", String.format("%,.0f", betsPerSecond)));
+  }
+
+  private HttpResponse<String> awaitCompletion(String path) throws Exception {
+    while (true) {
+      var response = send(HttpRequest.newBuilder(URI.create(api + path)).GET().build());
+      if (response.statusCode() != 200 || !response.body().contains("\"IN_PROGRESS\"")) {
+        return response;
+      }
+      Thread.sleep(100);
+    }
+  }
+
+  private Report eventListing(OpenF1Stub stub) throws Exception {
+    long stubRequestsBefore = stub.requests();
+    long throttledBefore = stub.throttled();
+    long start = System.nanoTime();
+    var samples = ClosedLoop.run(options.threads(), options.duration(), this::listEvents);
+    return Report.of(label("event listing (" + options.threads() + " threads)"), samples,
+        Duration.ofNanos(System.nanoTime() - start), Map.of(
+            "upstream", (stub.requests() - stubRequestsBefore) + " requests, "
+                + (stub.throttled() - throttledBefore) + " answered 429"));
+  }
+
+  private boolean listEvents(long sequence) throws Exception {
+    var request = HttpRequest.newBuilder(URI.create(api + "/events?year=" + (2023 + sequence % 3)))
+        .GET().build();
+    return send(request).statusCode() == 200;
+  }
+
+  /**
+   * Adds the peak request and OpenF1 platform threads seen while the scenario ran to its reports.
+   */
+  private static List<Report> sampleThreads(Callable<List<Report>> scenario) throws Exception {
+    try (var sampler = new ThreadSampler()) {
+      var reports = scenario.call();
+      reports.forEach(report -> report.extra().put("threads", sampler.peaks()));
+      return reports;
+    }
+  }
+
+  private String label(String scenario) {
+    return "[" + threadMode + "] " + scenario;
+  }
+
+  private HttpRequest post(String path, Object body) throws Exception {
+    return HttpRequest.newBuilder(URI.create(api + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+        .build();
+  }
+
+  private HttpResponse<String> send(HttpRequest request) throws Exception {
+    return http.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static Map<Integer, Long> counts(Map<Integer, LongAdder> statuses) {
+    var counts = new TreeMap<Integer, Long>();
+    statuses.forEach((status, count) -> counts.put(status, count.sum()));
+    return counts;
+  }
+}
@@ -0,0 +1,67 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options as {@code key=value} pairs, e.g.
+ * {@code ./gradlew loadTest --args="scenarios=placement threads=64 duration=PT1M"}.
+ * Keys containing a dot are passed on to the application as Spring properties.
+ * {@code threadModes=platform,virtual} runs the scenarios once per thread mode.
+ */
+record LoadTestOptions(
+    Set<String> scenarios,
+    List<String> threadModes,
+    long users,
+    int threads,
+    Duration duration,
+    long settlementBets,
+    String settlementMode,
+    Duration stubLatency,
+    double stub429Rate,
+    Map<String, String> applicationProperties
+) {
+
+  private static final Set<String> THREAD_MODES = Set.of("platform", "virtual");
+
+  static LoadTestOptions parse(String[] args) {
+    var values = new HashMap<String, String>();
+    var properties = new HashMap<String, String>();
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (eq <= 0) {
+        throw new IllegalArgumentException("Expected key=value but got: " + arg);
+      }
+      String key = arg.substring(0, eq).replaceFirst("^--", "");
+      (key.contains(".") ? properties : values).put(key, arg.substring(eq + 1));
+    }
+    var options = new LoadTestOptions(
+        Set.copyOf(List.of(values.getOrDefault("scenarios", "placement,settlement,listing").split(","))),
+        List.of(values.getOrDefault("threadModes", "platform").split(",")),
+        Long.parseLong(values.getOrDefault("users", "100000")),
+        Integer.parseInt(values.getOrDefault("threads", "32")),
+        Duration.parse(values.getOrDefault("duration", "PT30S")),
+        Long.parseLong(values.getOrDefault("settlementBets", "1000000")),
+        values.getOrDefault("settlementMode", "CHUNKED"),
+        Duration.parse(values.getOrDefault("stubLatency", "PT0.05S")),
+        Double.parseDouble(values.getOrDefault("stub429Rate", "0.05")),
+        Map.copyOf(properties));
+    values.keySet().removeAll(Set.of("scenarios", "threadModes", "users", "threads", "duration", "settlementBets",
+        "settlementMode", "stubLatency", "stub429Rate"));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("Unknown options: " + values.keySet());
+    }
+    if (!THREAD_MODES.containsAll(options.threadModes())) {
+      throw new IllegalArgumentException("threadModes must be platform and/or virtual: " + options.threadModes());
+    }
+    return options;
+  }
+
+  /** Every settled bet needs its own user, so there are at least as many users as bets. */
+  long seededUsers() {
+    return scenarios.contains("settlement") ? Math.max(users, settlementBets) : users;
+  }
+}
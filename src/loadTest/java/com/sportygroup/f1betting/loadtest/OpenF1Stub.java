@@ -0,0 +1,161 @@
+package com.sportygroup.f1betting.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for {@code https://api.openf1.org/v1/} serving {@code /sessions} and
+ * {@code /drivers} from generated data. Every response is delayed by {@code latency}, and a
+ * {@code tooManyRequestsRate} share of the requests is answered with 429 and a
+ * {@code Retry-After} header like the real API does when it throttles.
+ */
+class OpenF1Stub implements AutoCloseable {
+
+  private static final int DRIVERS_PER_SESSION = 20;
+
+  private final Duration latency;
+  private final double tooManyRequestsRate;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final List<Session> sessions = new ArrayList<>();
+  private final Map<String, List<Driver>> driversBySession = new HashMap<>();
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong throttled = new AtomicLong();
+
+  OpenF1Stub(Duration latency, double tooManyRequestsRate, int meetings, int sessionsPerMeeting) throws IOException {
+    this.latency = latency;
+    this.tooManyRequestsRate = tooManyRequestsRate;
+    generate(meetings, sessionsPerMeeting);
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** Base URL to configure as {@code event.api.url}. */
+  String baseUrl() {
+    return "http://localhost:" + server.getAddress().getPort() + "/v1/";
+  }
+
+  long requests() {
+    return requests.get();
+  }
+
+  long throttled() {
+    return throttled.get();
+  }
+
+  private void generate(int meetings, int sessionsPerMeeting) {
+    for (int m = 0; m < meetings; m++) {
+      String meetingKey = String.valueOf(1000 + m);
+      String year = String.valueOf(2023 + m % 3);
+      for (int s = 0; s < sessionsPerMeeting; s++) {
+        String sessionKey = String.valueOf(9000 + m * sessionsPerMeeting + s);
+        String type = s == sessionsPerMeeting - 1 ? "Race" : "Practice";
+        sessions.add(new Session("c" + m, "Circuit " + m, "C" + m, String.valueOf(m), "Country " + m,
+            null, null, "+00:00", "Location " + m, meetingKey, sessionKey, type, type, year));
+        var drivers = new ArrayList<Driver>(DRIVERS_PER_SESSION);
+        for (int d = 1; d <= DRIVERS_PER_SESSION; d++) {
+          drivers.add(new Driver(String.valueOf(d), "Driver " + d, sessionKey));
+        }
+        driversBySession.put(sessionKey, drivers);
+      }
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    try {
+      sleep(latency);
+      if (ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+        throttled.incrementAndGet();
+        exchange.getResponseHeaders().add("Retry-After", "1");
+        exchange.sendResponseHeaders(429, -1);
+        return;
+      }
+      var uri = exchange.getRequestURI();
+      var query = query(uri);
+      Object body;
+      if (uri.getPath().endsWith("/sessions")) {
+        body = sessions.stream()
+            .filter(s -> matches(query.get("session_type"), s.session_type()))
+            .filter(s -> matches(query.get("year"), s.year()))
+            .filter(s -> matches(query.get("country_name"), s.country_name()))
+            .toList();
+      } else if (uri.getPath().endsWith("/drivers")) {
+        body = sessions.stream()
+            .filter(s -> matches(query.get("session_key"), s.session_key()))
+            .filter(s -> matches(query.get("meeting_key"), s.meeting_key()))
+            .flatMap(s -> driversBySession.get(s.session_key()).stream())
+            .toList();
+      } else {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      byte[] json = objectMapper.writeValueAsBytes(body);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, json.length);
+      exchange.getResponseBody().write(json);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static boolean matches(String expected, String actual) {
+    return expected == null || expected.equals(actual);
+  }
+
+  private static Map<String, String> query(URI uri) {
+    var params = new HashMap<String, String>();
+    if (uri.getRawQuery() != null) {
+      for (String pair : uri.getRawQuery().split("&")) {
+        int eq = pair.indexOf('=');
+        if (eq > 0) {
+          params.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+        }
+      }
+    }
+    return params;
+  }
+
+  private static String decode(String s) {
+    return URLDecoder.decode(s, StandardCharsets.UTF_8);
+  }
+
+  private static void sleep(Duration duration) {
+    if (duration.isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,51 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one scenario: throughput over the wall time and latency percentiles over the
+ * successful operations. {@code extra} carries scenario specific counters.
+ */
+record Report(
+    String scenario,
+    long operations,
+    long errors,
+    Duration wallTime,
+    long p50Nanos,
+    long p90Nanos,
+    long p99Nanos,
+    long p999Nanos,
+    long maxNanos,
+    Map<String, Object> extra
+) {
+
+  static Report of(String scenario, Collection<Samples> samples, Duration wallTime, Map<String, Object> extra) {
+    var merged = Samples.merge(samples);
+    return new Report(scenario, merged.size(), merged.errors(), wallTime,
+        merged.percentile(50), merged.percentile(90), merged.percentile(99), merged.percentile(99.9),
+        merged.percentile(100), new LinkedHashMap<>(extra));
+  }
+
+  double throughputPerSecond() {
+    return operations / Math.max(wallTime.toNanos() / 1e9, 1e-9);
+  }
+
+  String format() {
+    var sb = new StringBuilder()
+        .append(String.format("%n== %s ==%n", scenario))
+        .append(String.format("operations  %,d ok, %,d errors in %.1f s%n",
+            operations, errors, wallTime.toMillis() / 1000.0))
+        .append(String.format("throughput  %,.1f ops/s%n", throughputPerSecond()))
+        .append(String.format("latency     p50 %s  p90 %s  p99 %s  p99.9 %s  max %s%n",
+            ms(p50Nanos), ms(p90Nanos), ms(p99Nanos), ms(p999Nanos), ms(maxNanos)));
+    extra.forEach((key, value) -> sb.append(String.format("%-11s %s%n", key, value)));
+    return sb.toString();
+  }
+
+  private static String ms(long nanos) {
+    return String.format("%.2fms", nanos / 1e6);
+  }
+}
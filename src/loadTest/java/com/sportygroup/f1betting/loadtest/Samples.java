@@ -0,0 +1,56 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Latencies in nanoseconds recorded by one worker thread, plus its error count. Workers record
+ * into their own instance and the results are merged once the scenario has finished, so
+ * recording never contends.
+ */
+final class Samples {
+
+  private long[] latencies = new long[1024];
+  private int size;
+  private long errors;
+
+  void record(long nanos) {
+    if (size == latencies.length) {
+      latencies = Arrays.copyOf(latencies, size * 2);
+    }
+    latencies[size++] = nanos;
+  }
+
+  void error() {
+    errors++;
+  }
+
+  static Samples merge(Collection<Samples> all) {
+    var merged = new Samples();
+    merged.latencies = new long[Math.max(1, all.stream().mapToInt(s -> s.size).sum())];
+    for (Samples s : all) {
+      System.arraycopy(s.latencies, 0, merged.latencies, merged.size, s.size);
+      merged.size += s.size;
+      merged.errors += s.errors;
+    }
+    Arrays.sort(merged.latencies, 0, merged.size);
+    return merged;
+  }
+
+  int size() {
+    return size;
+  }
+
+  long errors() {
+    return errors;
+  }
+
+  /** Nearest-rank percentile of a merged, sorted instance. */
+  long percentile(double p) {
+    if (size == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(p / 100.0 * size);
+    return latencies[Math.min(size, Math.max(rank, 1)) - 1];
+  }
+}
@@ -0,0 +1,48 @@
+package com.sportygroup.f1betting.loadtest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the application's request and OpenF1 platform threads every 100 ms while a scenario
+ * runs and keeps the peak of each. Virtual threads are not platform threads and never show up
+ * here, which is the point of comparing the two thread modes.
+ */
+final class ThreadSampler implements AutoCloseable {
+
+  private static final Map<String, String> POOLS_BY_PREFIX = Map.of(
+      "http-nio-", "tomcat",
+      "openf1-", "openf1");
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final Map<String, Integer> peaks = new ConcurrentHashMap<>();
+
+  ThreadSampler() {
+    scheduler.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+  }
+
+  private void sample() {
+    var counts = new ConcurrentHashMap<String, Integer>();
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      POOLS_BY_PREFIX.forEach((prefix, pool) -> {
+        if (thread.getName().startsWith(prefix)) {
+          counts.merge(pool, 1, Integer::sum);
+        }
+      });
+    }
+    counts.forEach((pool, count) -> peaks.merge(pool, count, Math::max));
+  }
+
+  /** Peak platform threads per pool, e.g. {@code "tomcat 200, openf1 3"}. */
+  String peaks() {
+    return "tomcat " + peaks.getOrDefault("tomcat", 0) + ", openf1 " + peaks.getOrDefault("openf1", 0);
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
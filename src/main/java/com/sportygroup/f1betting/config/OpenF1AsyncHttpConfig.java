@@ -0,0 +1,53 @@
+package com.sportygroup.f1betting.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "event.api.client", havingValue = "async")
+public class OpenF1AsyncHttpConfig {
+
+  /**
+   * Non-blocking HTTP client for OpenF1 with the same pool limits and timeouts as the blocking
+   * one. A handful of I/O reactor threads serve every request. Pool usage is exported tagged
+   * {@code httpclient=openf1-async}. The async client does not decompress responses, so
+   * {@code event.api.http.compression} does not apply here.
+   */
+  @Bean(initMethod = "start", destroyMethod = "close")
+  CloseableHttpAsyncClient openF1AsyncHttpClient(OpenF1HttpProperties properties, MeterRegistry meterRegistry) {
+    var connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(properties.maxConnections())
+        .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+            .setSocketTimeout(Timeout.of(properties.socketTimeout()))
+            .setTimeToLive(TimeValue.of(properties.timeToLive()))
+            .build())
+        .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "openf1-async").bindTo(meterRegistry);
+
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectionRequestTimeout(Timeout.of(properties.connectionRequestTimeout()))
+        .setResponseTimeout(Timeout.of(properties.responseTimeout()))
+        .setConnectionKeepAlive(TimeValue.of(properties.keepAlive()))
+        .build();
+
+    return HttpAsyncClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(properties.idleTimeout()))
+        .disableAutomaticRetries()
+        .build();
+  }
+}
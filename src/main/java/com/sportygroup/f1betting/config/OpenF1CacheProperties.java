@@ -0,0 +1,18 @@
+package com.sportygroup.f1betting.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Cache policy for OpenF1 reference data. Finished sessions never change, so they get a long
+ * TTL; live sessions are refreshed often. Entries past their TTL are still served for
+ * {@code staleWindow} while a background refresh runs.
+ */
+@ConfigurationProperties("event.api.cache")
+public record OpenF1CacheProperties(
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("24h") Duration finishedTtl,
+    @DefaultValue("30s") Duration liveTtl,
+    @DefaultValue("10m") Duration staleWindow
+) {}
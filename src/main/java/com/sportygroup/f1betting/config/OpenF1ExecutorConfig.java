@@ -0,0 +1,46 @@
+package com.sportygroup.f1betting.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+@Configuration
+public class OpenF1ExecutorConfig {
+
+  /**
+   * Bounded pool used to fan out OpenF1 lookups. The pool size caps the number of
+   * concurrent upstream calls; the {@code OpenF1RequestScheduler} still paces every request.
+   * With {@code spring.threads.virtual.enabled} the workers are virtual threads, so a lookup
+   * waiting for the scheduler or the HTTP response does not hold a platform thread.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService openF1Executor(
+      @Value("${event.api.fetch-parallelism:3}") int parallelism,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    return Executors.newFixedThreadPool(parallelism, threadFactory("openf1-", virtualThreads));
+  }
+
+  /**
+   * Runs the background refreshes of stale cache entries. They wait for the scheduler like any
+   * other lookup, so they get their own workers and never fill {@link #openF1Executor} ahead of
+   * the misses someone is waiting for.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService openF1RefreshExecutor(
+      @Value("${event.api.refresh-parallelism:2}") int parallelism,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    return Executors.newFixedThreadPool(parallelism, threadFactory("openf1-refresh-", virtualThreads));
+  }
+
+  private static ThreadFactory threadFactory(String prefix, boolean virtualThreads) {
+    return virtualThreads
+        ? Thread.ofVirtual().name(prefix, 1).factory()
+        : new CustomizableThreadFactory(prefix);
+  }
+}
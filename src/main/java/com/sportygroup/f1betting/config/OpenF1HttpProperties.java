@@ -0,0 +1,25 @@
+package com.sportygroup.f1betting.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * HTTP client settings for OpenF1. Every wait is bounded: getting a pooled connection, opening
+ * it, waiting for the response and reading from the socket. Connections are kept alive for
+ * {@code keepAlive} unless the server says otherwise, closed after {@code timeToLive}, and idle
+ * ones are evicted after {@code idleTimeout}.
+ */
+@ConfigurationProperties("event.api.http")
+public record OpenF1HttpProperties(
+    @DefaultValue("20") int maxConnections,
+    @DefaultValue("10") int maxConnectionsPerRoute,
+    @DefaultValue("1s") Duration connectionRequestTimeout,
+    @DefaultValue("2s") Duration connectTimeout,
+    @DefaultValue("5s") Duration responseTimeout,
+    @DefaultValue("5s") Duration socketTimeout,
+    @DefaultValue("30s") Duration keepAlive,
+    @DefaultValue("5m") Duration timeToLive,
+    @DefaultValue("30s") Duration idleTimeout,
+    @DefaultValue("true") boolean compression
+) {}
@@ -0,0 +1,24 @@
+package com.sportygroup.f1betting.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Pacing of OpenF1 requests. The scheduler starts at {@code maxRate} requests per second, and a
+ * 429 response multiplies the rate by {@code backoffFactor} (never below {@code minRate}) and
+ * pauses dispatching for the response's {@code Retry-After}, or {@code defaultRetryAfter} if it
+ * has none. Every successful response adds {@code rateIncrease} back, up to {@code maxRate}. A
+ * request is attempted at most {@code maxAttempts} times and fails if it has not been sent
+ * within {@code maxWait}.
+ */
+@ConfigurationProperties("event.api.scheduler")
+public record OpenF1SchedulerProperties(
+    @DefaultValue("3") double maxRate,
+    @DefaultValue("0.5") double minRate,
+    @DefaultValue("0.1") double rateIncrease,
+    @DefaultValue("0.5") double backoffFactor,
+    @DefaultValue("1s") Duration defaultRetryAfter,
+    @DefaultValue("3") int maxAttempts,
+    @DefaultValue("30s") Duration maxWait
+) {}
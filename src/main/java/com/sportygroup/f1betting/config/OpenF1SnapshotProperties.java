@@ -0,0 +1,17 @@
+package com.sportygroup.f1betting.config;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Location of the file-backed snapshot of OpenF1 reference data that is loaded at startup.
+ * {@code maxEntries} caps each of its session, driver and meeting maps, since session queries
+ * come straight from clients.
+ */
+@ConfigurationProperties("event.api.snapshot")
+public record OpenF1SnapshotProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("data/openf1-snapshot.json") Path path,
+    @DefaultValue("10000") int maxEntries
+) {}
@@ -1,6 +1,14 @@
 package com.sportygroup.f1betting.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -9,9 +17,39 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
 
+  /**
+   * Pooled keep-alive connections to OpenF1. Pool usage is exported as
+   * {@code httpcomponents.httpclient.pool.*} tagged {@code httpclient=openf1}.
+   */
   @Bean
-  RestTemplate restTemplate() {
+  PoolingHttpClientConnectionManager openF1ConnectionManager(OpenF1HttpProperties properties, MeterRegistry meterRegistry) {
+    var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(properties.maxConnections())
+        .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+        .setDefaultConnectionConfig(ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+            .setSocketTimeout(Timeout.of(properties.socketTimeout()))
+            .setTimeToLive(TimeValue.of(properties.timeToLive()))
+            .build())
+        .build();
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "openf1").bindTo(meterRegistry);
+    return connectionManager;
+  }
+
+  @Bean
+  RestTemplate restTemplate(PoolingHttpClientConnectionManager openF1ConnectionManager, OpenF1HttpProperties properties) {
+    RequestConfig requestConfig = RequestConfig.custom()
+        .setConnectionRequestTimeout(Timeout.of(properties.connectionRequestTimeout()))
+        .setResponseTimeout(Timeout.of(properties.responseTimeout()))
+        .setConnectionKeepAlive(TimeValue.of(properties.keepAlive()))
+        .setContentCompressionEnabled(properties.compression())
+        .build();
+
     HttpClientBuilder clientBuilder = HttpClientBuilder.create()
+        .setConnectionManager(openF1ConnectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(properties.idleTimeout()))
         .disableAutomaticRetries();
 
     HttpComponentsClientHttpRequestFactory factory =
@@ -0,0 +1,20 @@
+package com.sportygroup.f1betting.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+@Configuration
+public class SettlementExecutorConfig {
+
+  /**
+   * Workers for asynchronous settlement jobs. Each job runs one event's settlement to the end,
+   * so the pool size caps how many events are settled concurrently.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService settlementExecutor(SettlementProperties properties) {
+    return Executors.newFixedThreadPool(properties.workers(), new CustomizableThreadFactory("settlement-"));
+  }
+}
@@ -0,0 +1,10 @@
+package com.sportygroup.f1betting.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("settlement")
+public record SettlementProperties(
+    @DefaultValue("1000") int chunkSize,
+    @DefaultValue("2") int workers
+) {}
@@ -3,8 +3,12 @@ package com.sportygroup.f1betting.controller;
 
 import com.sportygroup.f1betting.entity.Bet;
 import com.sportygroup.f1betting.model.PlaceBetRequest;
+import com.sportygroup.f1betting.model.PlaceBetResult;
+import com.sportygroup.f1betting.service.BatchPlacementService;
 import com.sportygroup.f1betting.service.BettingService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
@@ -21,6 +25,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class BetsController {
 
   private final BettingService bettingService;
+  private final BatchPlacementService batchPlacementService;
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
@@ -28,4 +33,19 @@ public class BetsController {
     return bettingService.placeBet(req);
   }
 
+  @PostMapping("/bulk")
+  @ResponseStatus(HttpStatus.CREATED)
+  public List<Bet> placeAll(@RequestBody @NotEmpty List<@Valid PlaceBetRequest> reqs) {
+    return bettingService.placeBets(reqs);
+  }
+
+  /**
+   * Unlike {@code /bulk}, slips are validated and placed independently; the response has one
+   * result per slip, in request order.
+   */
+  @PostMapping("/batch")
+  public List<PlaceBetResult> placeBatch(@RequestBody @NotEmpty List<PlaceBetRequest> reqs) {
+    return batchPlacementService.placeBatch(reqs);
+  }
+
 }
@@ -1,13 +1,26 @@
 package com.sportygroup.f1betting.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sportygroup.f1betting.model.EventDetails;
-import com.sportygroup.f1betting.model.EventOutcome;
 import com.sportygroup.f1betting.model.EventOutcomeRequest;
+import com.sportygroup.f1betting.model.EventStats;
+import com.sportygroup.f1betting.model.SettlementJob;
+import com.sportygroup.f1betting.model.SettlementMode;
+import com.sportygroup.f1betting.model.SettlementProgress;
 import com.sportygroup.f1betting.service.BettingService;
+import com.sportygroup.f1betting.service.ChunkedSettlementService;
 import com.sportygroup.f1betting.service.EventService;
+import com.sportygroup.f1betting.service.EventStatsRegistry;
+import com.sportygroup.f1betting.service.SettlementJobService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,6 +28,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/events")
@@ -23,6 +37,10 @@ public class EventController {
 
   private final EventService eventService;
   private final BettingService bettingService;
+  private final ChunkedSettlementService chunkedSettlementService;
+  private final SettlementJobService settlementJobService;
+  private final EventStatsRegistry eventStats;
+  private final ObjectMapper objectMapper;
 
   @GetMapping
   public List<EventDetails> list(
@@ -34,9 +52,73 @@ public class EventController {
   }
 
 
+  /**
+   * Streams events as NDJSON, one line per event, written as soon as its drivers are resolved.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> stream(
+      @RequestParam(required = false) String sessionType,
+      @RequestParam(required = false) String year,
+      @RequestParam(required = false) String country
+  ) {
+    StreamingResponseBody body = out ->
+        eventService.streamEvents(sessionType, year, country, details -> writeLine(out, details));
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(body);
+  }
+
+  private void writeLine(OutputStream out, EventDetails details) {
+    try {
+      out.write(objectMapper.writeValueAsBytes(details));
+      out.write('\n');
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * {@code mode=CHUNKED} settles pending bets in separately committed chunks and can be called
+   * again to resume an interrupted settlement. {@code mode=ASYNC} records the winner, answers
+   * 202 with a job id and settles the chunks on the settlement worker pool.
+   */
   @PostMapping("/{eventId}/outcome")
-  public EventOutcome settle(@PathVariable Long eventId, @Valid @RequestBody EventOutcomeRequest req) {
-     return bettingService.settleOutcome(eventId, req.winnerId());
+  public ResponseEntity<?> settle(
+      @PathVariable Long eventId,
+      @Valid @RequestBody EventOutcomeRequest req,
+      @RequestParam(defaultValue = "BULK") SettlementMode mode
+  ) {
+    return switch (mode) {
+      case BULK -> ResponseEntity.ok(bettingService.settleOutcome(eventId, req.winnerId()));
+      case CHUNKED -> ResponseEntity.ok(chunkedSettlementService.settle(eventId, req.winnerId()));
+      case ASYNC -> accepted(settlementJobService.submit(eventId, req.winnerId()));
+    };
+  }
+
+  private ResponseEntity<SettlementJob> accepted(SettlementJob job) {
+    return ResponseEntity
+        .accepted()
+        .location(URI.create("/api/events/settlements/" + job.jobId()))
+        .body(job);
+  }
+
+  @GetMapping("/{eventId}/settlement")
+  public ResponseEntity<SettlementProgress> settlementProgress(@PathVariable Long eventId) {
+    return ResponseEntity.of(chunkedSettlementService.findProgress(eventId));
+  }
+
+  /**
+   * Live stakes, bet counts and open liability per driver, served from memory.
+   */
+  @GetMapping("/{eventId}/stats")
+  public ResponseEntity<EventStats> stats(@PathVariable Long eventId) {
+    return ResponseEntity.of(eventStats.find(eventId));
+  }
+
+  @GetMapping("/settlements/{jobId}")
+  public ResponseEntity<SettlementProgress> settlementJob(@PathVariable String jobId) {
+    return ResponseEntity.of(chunkedSettlementService.findProgressByJobId(jobId));
   }
 
 }
@@ -1,5 +1,10 @@
 package com.sportygroup.f1betting.entity;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sportygroup.f1betting.model.Money;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -12,7 +17,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,14 +36,31 @@ import lombok.NoArgsConstructor;
 @Table(
     name = "bets",
     indexes = {
-    @Index(name = "ix_bet_event", columnList = "event_id"),
-    @Index(name = "ix_bet_status", columnList = "status"),
-    @Index(name = "ix_bet_user", columnList = "user_id")
-})
+    // count/find by (event, status) and keyset chunks of pending bets ordered by id
+    @Index(name = "ix_bet_event_status_id", columnList = "event_id, status, id"),
+    // settlement: covers the payout aggregation and the won/lost updates by driver
+    @Index(name = "ix_bet_event_status_driver", columnList = "event_id, status, driver_id, user_id, amount, odds")
+},
+    uniqueConstraints = @UniqueConstraint(name = Bet.USER_EVENT_CONSTRAINT, columnNames = {"user_id", "event_id"})
+)
 public class Bet {
 
+  /**
+   * One bet per user and event; placement relies on it instead of checking first. Its index
+   * also serves lookups by user, so there is no separate user index.
+   */
+  public static final String USER_EVENT_CONSTRAINT = "uk_bet_user_event";
+
+  /**
+   * Bets are inserted by native statements that call {@code nextval} once per bet, so the
+   * sequence steps by one. Hibernate draws from it the same way, one id per call, rather than
+   * pooling ids that the native inserts would skip.
+   */
+  public static final String ID_SEQUENCE = "bets_seq";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+  @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 1)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -44,6 +69,8 @@ public class Bet {
       nullable = false,
       foreignKey = @ForeignKey(name = "fk_bet_user")
   )
+  @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+  @JsonIdentityReference(alwaysAsId = true)
   private User user;
 
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -52,16 +79,22 @@ public class Bet {
       nullable = false,
       foreignKey = @ForeignKey(name="fk_bet_event")
   )
+  @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+  @JsonIdentityReference(alwaysAsId = true)
   private Event event;
 
   @Column(nullable = false)
   private Long driverId;
 
+  /** Stake in minor units, see {@link Money}. */
+  @JsonSerialize(using = Money.DecimalSerializer.class)
   @Column(nullable = false)
-  private double amount;
+  private long amount;
 
+  /** Decimal odds in hundredths, see {@link Money}. */
+  @JsonSerialize(using = Money.DecimalSerializer.class)
   @Column(nullable = false)
-  private double odds;
+  private long odds;
 
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
@@ -71,4 +104,7 @@ public class Bet {
   @Column(nullable = false)
   private Instant createdAt = Instant.now();
 
+  @Version
+  private Long version;
+
 }
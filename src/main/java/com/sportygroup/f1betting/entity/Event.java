@@ -3,6 +3,7 @@ package com.sportygroup.f1betting.entity;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,4 +25,7 @@ public class Event {
 
   private Instant settledAt;
 
+  @Version
+  private Long version;
+
 }
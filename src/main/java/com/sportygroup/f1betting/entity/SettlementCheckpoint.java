@@ -0,0 +1,63 @@
+package com.sportygroup.f1betting.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a chunked settlement. {@code lastBetId} is the keyset cursor: every pending bet
+ * with a lower id has already been settled and paid in a committed chunk. The version column
+ * makes two runners on the same event fail instead of paying a chunk twice.
+ */
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor(force = true)
+@Getter
+@Entity
+@Table(name = "settlement_checkpoints")
+public class SettlementCheckpoint {
+
+  @Id
+  private Long eventId;
+
+  @Column(nullable = false, unique = true, updatable = false)
+  private String jobId;
+
+  @Column(nullable = false)
+  private Long winnerDriverId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private SettlementStatus status;
+
+  @Column(nullable = false)
+  private long lastBetId;
+
+  @Column(nullable = false)
+  private long wonBets;
+
+  @Column(nullable = false)
+  private long lostBets;
+
+  @Column(nullable = false)
+  private Instant startedAt;
+
+  private Instant updatedAt;
+
+  private Instant completedAt;
+
+  private String failure;
+
+  @Version
+  private Long version;
+
+}
@@ -0,0 +1,5 @@
+package com.sportygroup.f1betting.entity;
+
+public enum SettlementStatus {
+  IN_PROGRESS, COMPLETED, FAILED
+}
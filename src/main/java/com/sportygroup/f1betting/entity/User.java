@@ -1,11 +1,14 @@
 package com.sportygroup.f1betting.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sportygroup.f1betting.model.Money;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -28,7 +31,12 @@ public class User {
 
   private String lastName;
 
+  /** In minor units, see {@link Money}. */
+  @JsonSerialize(using = Money.DecimalSerializer.class)
   @Column(nullable = false)
-  private double balance;
+  private long balance;
+
+  @Version
+  private Long version;
 
 }
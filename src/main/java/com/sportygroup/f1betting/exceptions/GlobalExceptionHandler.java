@@ -1,38 +1,59 @@
 package com.sportygroup.f1betting.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+/**
+ * Maps domain exceptions to responses and counts them as {@code api.errors}, tagged with the
+ * exception type and the response status.
+ */
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+  private final MeterRegistry meterRegistry;
+
   @ExceptionHandler({UserNotFoundException.class})
   public ResponseEntity<Object> handleUserNotFoundException(UserNotFoundException exception) {
-    return ResponseEntity
-        .status(HttpStatus.NOT_FOUND)
-        .body(exception.getMessage());
+    return respond(HttpStatus.NOT_FOUND, exception);
   }
 
   @ExceptionHandler({OutOfBalanceException.class})
   public ResponseEntity<Object> handleOutOfBalanceException(OutOfBalanceException exception) {
-    return ResponseEntity
-        .status(HttpStatus.BAD_REQUEST)
-        .body(exception.getMessage());
+    return respond(HttpStatus.BAD_REQUEST, exception);
   }
 
   @ExceptionHandler({DuplicateBetException.class})
   public ResponseEntity<Object> handleDuplicateBetException(DuplicateBetException exception) {
-    return ResponseEntity
-        .status(HttpStatus.BAD_REQUEST)
-        .body(exception.getMessage());
+    return respond(HttpStatus.BAD_REQUEST, exception);
   }
 
   @ExceptionHandler({EventFinishedException.class})
   public ResponseEntity<Object> handleEventFinishedException(EventFinishedException exception) {
+    return respond(HttpStatus.BAD_REQUEST, exception);
+  }
+
+  @ExceptionHandler({SettlementConflictException.class})
+  public ResponseEntity<Object> handleSettlementConflictException(SettlementConflictException exception) {
+    return respond(HttpStatus.CONFLICT, exception);
+  }
+
+  @ExceptionHandler({ConstraintViolationException.class})
+  public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException exception) {
+    return respond(HttpStatus.BAD_REQUEST, exception);
+  }
+
+  private ResponseEntity<Object> respond(HttpStatus status, Exception exception) {
+    meterRegistry.counter("api.errors",
+        "exception", exception.getClass().getSimpleName(),
+        "status", String.valueOf(status.value())).increment();
     return ResponseEntity
-        .status(HttpStatus.BAD_REQUEST)
+        .status(status)
         .body(exception.getMessage());
   }
 }
@@ -0,0 +1,10 @@
+package com.sportygroup.f1betting.exceptions;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SettlementConflictException extends RuntimeException {
+  private String message;
+}
@@ -0,0 +1,163 @@
+package com.sportygroup.f1betting.model;
+
+/**
+ * Per-user balance changes in minor units, as an open-addressing {@code long -> long} hash map
+ * with linear probing. Accumulating a delta never allocates (apart from growing the table), so
+ * settling a chunk of bets costs two arrays instead of a boxed key and value per bet.
+ */
+public final class BalanceDeltas {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  /** Marks an empty slot. User id 0 is kept outside the table. */
+  private static final long EMPTY = 0L;
+
+  private long[] keys;
+  private long[] values;
+  private int mask;
+  private int size;
+  private int resizeAt;
+
+  private boolean hasZeroKey;
+  private long zeroValue;
+
+  public BalanceDeltas(int expectedUsers) {
+    allocate(tableSizeFor(expectedUsers));
+  }
+
+  public void add(long userId, long delta) {
+    if (userId == EMPTY) {
+      size += hasZeroKey ? 0 : 1;
+      hasZeroKey = true;
+      zeroValue += delta;
+      return;
+    }
+    int slot = slot(userId);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == userId) {
+        values[slot] += delta;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = userId;
+    values[slot] = delta;
+    if (++size >= resizeAt) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  /** The accumulated delta of {@code userId}, or {@code 0} if it has none. */
+  public long get(long userId) {
+    if (userId == EMPTY) {
+      return hasZeroKey ? zeroValue : 0L;
+    }
+    int slot = slot(userId);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == userId) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return 0L;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void forEach(DeltaConsumer consumer) {
+    if (hasZeroKey) {
+      consumer.accept(EMPTY, zeroValue);
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != EMPTY) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface DeltaConsumer {
+    void accept(long userId, long delta);
+  }
+
+  private int slot(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key != EMPTY) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private static int tableSizeFor(int expected) {
+    int needed = (int) Math.ceil(Math.max(expected, 2) / LOAD_FACTOR);
+    return Integer.highestOneBit(needed - 1) << 1;
+  }
+
+  @Override
+  public String toString() {
+    var sb = new StringBuilder("BalanceDeltas{");
+    forEach((userId, delta) -> sb.append(userId).append('=').append(delta).append(", "));
+    if (size > 0) {
+      sb.setLength(sb.length() - 2);
+    }
+    return sb.append('}').toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof BalanceDeltas other) || other.size != size) {
+      return false;
+    }
+    boolean[] same = {true};
+    forEach((userId, delta) -> same[0] &= other.contains(userId) && other.get(userId) == delta);
+    return same[0];
+  }
+
+  @Override
+  public int hashCode() {
+    int[] h = {0};
+    forEach((userId, delta) -> h[0] += Long.hashCode(userId) ^ Long.hashCode(delta));
+    return h[0];
+  }
+
+  private boolean contains(long userId) {
+    if (userId == EMPTY) {
+      return hasZeroKey;
+    }
+    int slot = slot(userId);
+    while (keys[slot] != EMPTY) {
+      if (keys[slot] == userId) {
+        return true;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return false;
+  }
+}
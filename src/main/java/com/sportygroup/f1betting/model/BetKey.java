@@ -0,0 +1,7 @@
+package com.sportygroup.f1betting.model;
+
+public record BetKey(
+    Long betId,
+    Long userId,
+    Long eventId
+) {}
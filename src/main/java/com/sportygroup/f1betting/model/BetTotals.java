@@ -0,0 +1,12 @@
+package com.sportygroup.f1betting.model;
+
+import com.sportygroup.f1betting.entity.BetStatus;
+
+public record BetTotals(
+    Long eventId,
+    Long driverId,
+    BetStatus status,
+    Long bets,
+    Long stakes,
+    Long payouts
+) {}
@@ -2,5 +2,6 @@ package com.sportygroup.f1betting.model;
 
 public record Driver (
     String driver_number,
-    String full_name
+    String full_name,
+    String session_key
 ){}
@@ -0,0 +1,16 @@
+package com.sportygroup.f1betting.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.sportygroup.f1betting.entity.BetStatus;
+import java.util.Map;
+
+/**
+ * Live aggregates of the bets on an event. {@code potentialPayoutByDriver} is what the pending
+ * bets on each driver pay out if that driver wins, i.e. the open liability per outcome.
+ */
+public record EventStats(
+    long eventId,
+    @JsonSerialize(using = Money.DecimalSerializer.class) long totalStakes,
+    Map<BetStatus, Long> betsByStatus,
+    @JsonSerialize(contentUsing = Money.DecimalSerializer.class) Map<Long, Long> potentialPayoutByDriver
+) {}
@@ -0,0 +1,58 @@
+package com.sportygroup.f1betting.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money. Amounts and balances are {@code long} minor units (cents) and odds are
+ * {@code long} hundredths, so settlement math is exact integer arithmetic and never boxes.
+ * Decimals only exist at the API boundary.
+ */
+public final class Money {
+
+  /** Decimal places of amounts and odds. */
+  public static final int SCALE = 2;
+
+  /** {@code 1.00} in minor units, and odds of {@code 1.00} as a scaled integer. */
+  public static final long ONE = 100;
+
+  private Money() {
+  }
+
+  /**
+   * @throws ArithmeticException if {@code value} has more than {@link #SCALE} decimal places
+   *     or does not fit in a {@code long}
+   */
+  public static long toScaled(BigDecimal value) {
+    return value.movePointRight(SCALE).longValueExact();
+  }
+
+  public static BigDecimal toDecimal(long scaled) {
+    return BigDecimal.valueOf(scaled, SCALE);
+  }
+
+  /**
+   * Amount paid out for a winning stake, rounded down to whole minor units.
+   */
+  public static long payout(long stake, long odds) {
+    return Math.multiplyExact(stake, odds) / ONE;
+  }
+
+  /**
+   * Writes a scaled {@code long} (minor units or odds) as a JSON decimal.
+   */
+  public static class DecimalSerializer extends StdSerializer<Long> {
+
+    public DecimalSerializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNumber(toDecimal(value));
+    }
+  }
+}
@@ -1,13 +1,26 @@
 package com.sportygroup.f1betting.model;
 
-import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 
 
 public record PlaceBetRequest (
   @NotNull Long userId,
   @NotNull Long eventId,
   @NotNull Long driverId,
-  @Min(1) double odds,
-  @Min(1) double amount
-){}
+  @NotNull @DecimalMin("1") @Digits(integer = 9, fraction = Money.SCALE) BigDecimal odds,
+  @NotNull @DecimalMin("1") @Digits(integer = 13, fraction = Money.SCALE) BigDecimal amount
+){
+
+  /** Stake in minor units. */
+  public long amountMinor() {
+    return Money.toScaled(amount);
+  }
+
+  /** Odds in hundredths. */
+  public long oddsScaled() {
+    return Money.toScaled(odds);
+  }
+}
@@ -0,0 +1,29 @@
+package com.sportygroup.f1betting.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sportygroup.f1betting.entity.Bet;
+
+/**
+ * Result of one slip of a batch: either the placed {@code bet}, or the simple name of the
+ * exception that rejected it in {@code error} together with its message.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlaceBetResult(
+    int index,
+    Bet bet,
+    String error,
+    String message
+) {
+
+  public static PlaceBetResult created(int index, Bet bet) {
+    return new PlaceBetResult(index, bet, null, null);
+  }
+
+  public static PlaceBetResult rejected(int index, RuntimeException e) {
+    return new PlaceBetResult(index, null, e.getClass().getSimpleName(), e.getMessage());
+  }
+
+  public boolean isCreated() {
+    return bet != null;
+  }
+}
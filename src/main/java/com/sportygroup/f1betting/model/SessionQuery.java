@@ -0,0 +1,7 @@
+package com.sportygroup.f1betting.model;
+
+public record SessionQuery(
+    String sessionType,
+    String year,
+    String country
+) {}
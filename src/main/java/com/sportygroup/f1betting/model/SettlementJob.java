@@ -0,0 +1,7 @@
+package com.sportygroup.f1betting.model;
+
+import com.sportygroup.f1betting.entity.SettlementStatus;
+
+public record SettlementJob(
+    String jobId, long eventId, long winnerId, SettlementStatus status
+) {}
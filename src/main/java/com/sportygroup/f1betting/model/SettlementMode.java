@@ -0,0 +1,5 @@
+package com.sportygroup.f1betting.model;
+
+public enum SettlementMode {
+  BULK, CHUNKED, ASYNC
+}
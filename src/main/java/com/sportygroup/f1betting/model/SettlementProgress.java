@@ -0,0 +1,24 @@
+package com.sportygroup.f1betting.model;
+
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import java.time.Instant;
+
+/**
+ * {@code outcome} is only set once the settlement has completed; {@code failure} only while
+ * the last run ended in {@link SettlementStatus#FAILED}.
+ */
+public record SettlementProgress(
+    String jobId,
+    long eventId,
+    long winnerId,
+    SettlementStatus status,
+    long lastBetId,
+    long numberOfWinningBets,
+    long numberOfLostBets,
+    long remainingBets,
+    Instant startedAt,
+    Instant updatedAt,
+    Instant completedAt,
+    String failure,
+    EventOutcome outcome
+) {}
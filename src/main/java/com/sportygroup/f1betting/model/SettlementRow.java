@@ -0,0 +1,9 @@
+package com.sportygroup.f1betting.model;
+
+public record SettlementRow(
+    Long betId,
+    Long userId,
+    Long driverId,
+    long amount,
+    long odds
+) {}
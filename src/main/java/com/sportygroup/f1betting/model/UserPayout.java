@@ -0,0 +1,6 @@
+package com.sportygroup.f1betting.model;
+
+public record UserPayout(
+    Long userId,
+    Long amount
+) {}
@@ -2,20 +2,94 @@ package com.sportygroup.f1betting.repository;
 
 import com.sportygroup.f1betting.entity.Bet;
 import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.model.BetKey;
+import com.sportygroup.f1betting.model.BetTotals;
+import com.sportygroup.f1betting.model.UserPayout;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BetRepository extends JpaRepository<Bet, Integer> {
+public interface BetRepository extends JpaRepository<Bet, Integer>, BetRepositoryCustom {
 
   List<Bet> findByEvent_IdAndStatus(Long eventId, BetStatus betStatus);
 
   long countByEvent_IdAndStatus(Long eventId, BetStatus betStatus);
 
-  boolean existsByUser_IdAndEvent_Id(Long userId, Long eventId);
-
   Optional<Bet> findByEventId(Long eventId);
 
+  /**
+   * Bets of any of the users on any of the events; callers pick the (user, event) pairs they
+   * asked about.
+   */
+  @Query("""
+      select new com.sportygroup.f1betting.model.BetKey(b.id, b.user.id, b.event.id)
+        from Bet b
+       where b.user.id in :userIds
+         and b.event.id in :eventIds
+      """)
+  List<BetKey> findKeys(@Param("userIds") Collection<Long> userIds, @Param("eventIds") Collection<Long> eventIds);
+
+  @Modifying
+  @Query("""
+      update Bet b
+         set b.status = com.sportygroup.f1betting.entity.BetStatus.WON,
+             b.version = b.version + 1
+       where b.event.id = :eventId
+         and b.status = com.sportygroup.f1betting.entity.BetStatus.PENDING
+         and b.driverId = :winnerDriverId
+      """)
+  int markWinningBets(@Param("eventId") Long eventId, @Param("winnerDriverId") Long winnerDriverId);
+
+  @Modifying
+  @Query("""
+      update Bet b
+         set b.status = com.sportygroup.f1betting.entity.BetStatus.LOST,
+             b.version = b.version + 1
+       where b.event.id = :eventId
+         and b.status = com.sportygroup.f1betting.entity.BetStatus.PENDING
+         and b.driverId <> :winnerDriverId
+      """)
+  int markLosingBets(@Param("eventId") Long eventId, @Param("winnerDriverId") Long winnerDriverId);
+
+  /**
+   * Payout per user over the pending bets on the winner, using the same rounding as
+   * {@link com.sportygroup.f1betting.model.Money#payout}.
+   */
+  @Query("""
+      select new com.sportygroup.f1betting.model.UserPayout(b.user.id, sum((b.amount * b.odds) / 100))
+        from Bet b
+       where b.event.id = :eventId
+         and b.status = com.sportygroup.f1betting.entity.BetStatus.PENDING
+         and b.driverId = :winnerDriverId
+       group by b.user.id
+      """)
+  List<UserPayout> sumPendingPayouts(@Param("eventId") Long eventId, @Param("winnerDriverId") Long winnerDriverId);
+
+  /**
+   * Bet count, stakes and payouts per event, driver and status; rebuilds the event statistics.
+   */
+  @Query("""
+      select new com.sportygroup.f1betting.model.BetTotals(
+               b.event.id, b.driverId, b.status, count(b), sum(b.amount), sum((b.amount * b.odds) / 100))
+        from Bet b
+       group by b.event.id, b.driverId, b.status
+      """)
+  List<BetTotals> sumTotals();
+
+  @Modifying
+  @Query("""
+      update Bet b
+         set b.status = :status,
+             b.version = b.version + 1
+       where b.id in :betIds
+         and b.status = com.sportygroup.f1betting.entity.BetStatus.PENDING
+      """)
+  int markBets(@Param("betIds") Collection<Long> betIds, @Param("status") BetStatus status);
+
 }
@@ -0,0 +1,38 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.model.SettlementRow;
+import java.util.List;
+import java.util.Optional;
+
+public interface BetRepositoryCustom {
+
+  /**
+   * Inserts a pending bet in one statement, guarded by its event not having a winner yet.
+   *
+   * @return the new bet id, or empty if the event is already settled or does not exist
+   * @throws org.springframework.dao.DataIntegrityViolationException if the user already has a
+   *     bet on the event ({@link Bet#USER_EVENT_CONSTRAINT})
+   */
+  Optional<Long> insertIfEventOpen(Bet bet);
+
+  /**
+   * Runs {@link #insertIfEventOpen} for all bets as one JDBC batch. Bets on settled events are
+   * skipped; which bets were inserted is read back by (user, event) since drivers differ in
+   * what they report per batched statement.
+   *
+   * @return the row count per bet: 0 for a bet that was skipped, or
+   *     {@link java.sql.Statement#SUCCESS_NO_INFO} if the driver does not report it
+   * @throws org.springframework.dao.DataIntegrityViolationException if any bet violates
+   *     {@link Bet#USER_EVENT_CONSTRAINT}
+   */
+  int[] insertAllIfEventOpen(List<Bet> bets);
+
+  /**
+   * Keyset page of pending bets of the event ordered by id, starting after {@code afterBetId}.
+   * The rows stay locked until the transaction ends, so a concurrent settlement cannot
+   * transition (and pay) them in the meantime.
+   */
+  List<SettlementRow> lockPendingChunk(Long eventId, long afterBetId, int limit);
+
+}
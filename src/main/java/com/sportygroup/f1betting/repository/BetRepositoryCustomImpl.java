@@ -0,0 +1,89 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.model.SettlementRow;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+@RequiredArgsConstructor
+public class BetRepositoryCustomImpl implements BetRepositoryCustom {
+
+  private static final String INSERT_IF_EVENT_OPEN = """
+      insert into bets (id, user_id, event_id, driver_id, amount, odds, status, created_at, version)
+      select nextval('bets_seq'), cast(? as bigint), e.id, cast(? as bigint), cast(? as bigint), cast(? as bigint),
+             cast(? as varchar(255)), cast(? as timestamp with time zone), 0
+        from events e
+       where e.id = ?
+         and e.winner_driver_id is null
+      """;
+
+  private static final String LOCK_PENDING_CHUNK = """
+      select id, user_id, driver_id, amount, odds
+        from bets
+       where event_id = ?
+         and status = ?
+         and id > ?
+       order by id
+       limit ?
+         for update
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public Optional<Long> insertIfEventOpen(Bet bet) {
+    var keyHolder = new GeneratedKeyHolder();
+    int inserted = jdbcTemplate.update(connection -> {
+      PreparedStatement ps = connection.prepareStatement(INSERT_IF_EVENT_OPEN, new String[]{"id"});
+      setInsertParameters(ps, bet);
+      return ps;
+    }, keyHolder);
+
+    if (inserted == 0) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(keyHolder.getKey()).map(Number::longValue);
+  }
+
+  @Override
+  public int[] insertAllIfEventOpen(List<Bet> bets) {
+    return jdbcTemplate.batchUpdate(INSERT_IF_EVENT_OPEN, new BatchPreparedStatementSetter() {
+      @Override
+      public void setValues(PreparedStatement ps, int i) throws SQLException {
+        setInsertParameters(ps, bets.get(i));
+      }
+
+      @Override
+      public int getBatchSize() {
+        return bets.size();
+      }
+    });
+  }
+
+  @Override
+  public List<SettlementRow> lockPendingChunk(Long eventId, long afterBetId, int limit) {
+    return jdbcTemplate.query(LOCK_PENDING_CHUNK,
+        (rs, rowNum) -> new SettlementRow(
+            rs.getLong("id"), rs.getLong("user_id"), rs.getLong("driver_id"), rs.getLong("amount"), rs.getLong("odds")),
+        eventId, BetStatus.PENDING.name(), afterBetId, limit);
+  }
+
+  private static void setInsertParameters(PreparedStatement ps, Bet bet) throws SQLException {
+    ps.setLong(1, bet.getUser().getId());
+    ps.setLong(2, bet.getDriverId());
+    ps.setLong(3, bet.getAmount());
+    ps.setLong(4, bet.getOdds());
+    ps.setString(5, bet.getStatus().name());
+    ps.setObject(6, bet.getCreatedAt().atOffset(ZoneOffset.UTC));
+    ps.setLong(7, bet.getEvent().getId());
+  }
+
+}
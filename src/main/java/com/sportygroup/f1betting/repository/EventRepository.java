@@ -1,10 +1,17 @@
 package com.sportygroup.f1betting.repository;
 
 import com.sportygroup.f1betting.entity.Event;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
+
+  @Query("select e.id from Event e where e.id in :ids and e.winnerDriverId is not null")
+  List<Long> findSettledIds(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,36 @@
+package com.sportygroup.f1betting.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface EventRepositoryCustom {
+
+  /**
+   * Creates the event row unless it already exists, without reading it first.
+   */
+  void insertIfAbsent(Long eventId);
+
+  /**
+   * Same as {@link #insertIfAbsent(Long)} for several events, in one JDBC batch.
+   */
+  void insertAllIfAbsent(Collection<Long> eventIds);
+
+  /**
+   * Locks the event row until the transaction ends if the event has no winner yet. Placements
+   * take this lock before inserting, so a settlement recording the winner waits for their bets
+   * to commit and then sees them.
+   *
+   * @return {@code false} if the event is already settled or does not exist
+   */
+  boolean lockIfOpen(Long eventId);
+
+  /**
+   * Records the winner, and {@code settledAt} if not null, unless the event already has a
+   * winner. The statement runs right away and keeps the event row locked until the transaction
+   * ends, so no bet can be placed on the event once it returns.
+   *
+   * @return {@code false} if the event already has a winner or does not exist
+   */
+  boolean setWinnerIfAbsent(Long eventId, long winnerDriverId, Instant settledAt);
+
+}
@@ -0,0 +1,51 @@
+package com.sportygroup.f1betting.repository;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private static final String INSERT_IF_ABSENT = "insert into events (id, version) values (?, 0) on conflict do nothing";
+
+  // H2 has no shared row locks, so placements on the same event take turns until they commit
+  private static final String LOCK_IF_OPEN = "select id from events where id = ? and winner_driver_id is null for update";
+
+  private static final String SET_WINNER_IF_ABSENT = """
+      update events
+         set winner_driver_id = ?,
+             settled_at = cast(? as timestamp with time zone),
+             version = version + 1
+       where id = ?
+         and winner_driver_id is null
+      """;
+
+  @Override
+  public void insertIfAbsent(Long eventId) {
+    jdbcTemplate.update(INSERT_IF_ABSENT, eventId);
+  }
+
+  @Override
+  public void insertAllIfAbsent(Collection<Long> eventIds) {
+    jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, eventIds.stream()
+        .map(id -> new Object[]{id})
+        .toList());
+  }
+
+  @Override
+  public boolean lockIfOpen(Long eventId) {
+    return !jdbcTemplate.queryForList(LOCK_IF_OPEN, Long.class, eventId).isEmpty();
+  }
+
+  @Override
+  public boolean setWinnerIfAbsent(Long eventId, long winnerDriverId, Instant settledAt) {
+    return jdbcTemplate.update(SET_WINNER_IF_ABSENT,
+        winnerDriverId, settledAt == null ? null : settledAt.atOffset(ZoneOffset.UTC), eventId) > 0;
+  }
+
+}
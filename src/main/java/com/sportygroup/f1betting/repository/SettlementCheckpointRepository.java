@@ -0,0 +1,16 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.SettlementCheckpoint;
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SettlementCheckpointRepository extends JpaRepository<SettlementCheckpoint, Long> {
+
+  Optional<SettlementCheckpoint> findByJobId(String jobId);
+
+  List<SettlementCheckpoint> findByStatus(SettlementStatus status);
+}
@@ -1,10 +1,17 @@
 package com.sportygroup.f1betting.repository;
 
 import com.sportygroup.f1betting.entity.User;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+  @Query("select u.id from User u where u.id in :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,12 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.model.BalanceDeltas;
+
+public interface UserRepositoryCustom {
+
+  /**
+   * Adds each delta (in minor units) to the user's balance in one JDBC batch.
+   */
+  void addToBalances(BalanceDeltas deltas);
+
+}
@@ -0,0 +1,43 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public void addToBalances(BalanceDeltas deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    long[] userIds = new long[deltas.size()];
+    long[] amounts = new long[deltas.size()];
+    int[] next = {0};
+    deltas.forEach((userId, delta) -> {
+      userIds[next[0]] = userId;
+      amounts[next[0]++] = delta;
+    });
+
+    jdbcTemplate.batchUpdate("update users set balance = balance + ?, version = version + 1 where id = ?",
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setLong(1, amounts[i]);
+            ps.setLong(2, userIds[i]);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return userIds.length;
+          }
+        });
+  }
+
+}
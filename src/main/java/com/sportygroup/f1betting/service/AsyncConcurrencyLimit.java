@@ -0,0 +1,66 @@
+package com.sportygroup.f1betting.service;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of asynchronous operations in flight without blocking the caller. Operations
+ * beyond the limit wait in a FIFO queue and are started, on the completing thread, as earlier
+ * ones finish.
+ */
+final class AsyncConcurrencyLimit {
+
+  private final int limit;
+  private final Queue<Runnable> waiting = new ArrayDeque<>();
+  private int inFlight;
+
+  AsyncConcurrencyLimit(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be positive: " + limit);
+    }
+    this.limit = limit;
+  }
+
+  <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> operation) {
+    var result = new CompletableFuture<T>();
+    Runnable start = () -> start(operation).whenComplete((value, failure) -> {
+      release();
+      if (failure != null) {
+        result.completeExceptionally(failure);
+      } else {
+        result.complete(value);
+      }
+    });
+    synchronized (this) {
+      if (inFlight == limit) {
+        waiting.add(start);
+        return result;
+      }
+      inFlight++;
+    }
+    start.run();
+    return result;
+  }
+
+  private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> operation) {
+    try {
+      return operation.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private void release() {
+    Runnable next;
+    synchronized (this) {
+      next = waiting.poll();
+      if (next == null) {
+        inFlight--;
+        return;
+      }
+    }
+    next.run();
+  }
+}
@@ -0,0 +1,153 @@
+package com.sportygroup.f1betting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Non-blocking OpenF1 client on the async HttpClient 5. Requests go through the same
+ * {@link OpenF1RequestScheduler} as {@link OpenF1ClientImpl}'s, without holding a thread while
+ * they wait for their turn:
+ * <ul>
+ *   <li>429 responses are raised as {@link HttpClientErrorException.TooManyRequests} with their
+ *   {@code Retry-After} header, so the scheduler slows down and retries them;</li>
+ *   <li>anything that still fails completes with an empty result.</li>
+ * </ul>
+ * At most {@code event.api.fetch-parallelism} calls are in flight, like the blocking client's
+ * pool; further calls queue until one completes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "event.api.client", havingValue = "async")
+public class AsyncOpenF1ClientImpl implements OpenF1AsyncClient {
+
+  private final String apiUrl;
+  private final CloseableHttpAsyncClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final OpenF1RequestScheduler scheduler;
+  private final AsyncConcurrencyLimit concurrencyLimit;
+
+  public AsyncOpenF1ClientImpl(
+      @Value("${event.api.url}") String apiUrl,
+      @Value("${event.api.fetch-parallelism:3}") int parallelism,
+      CloseableHttpAsyncClient openF1AsyncHttpClient,
+      ObjectMapper objectMapper,
+      OpenF1RequestScheduler scheduler
+  ) {
+    this.apiUrl = apiUrl;
+    this.httpClient = openF1AsyncHttpClient;
+    this.objectMapper = objectMapper;
+    this.scheduler = scheduler;
+    this.concurrencyLimit = new AsyncConcurrencyLimit(parallelism);
+  }
+
+  @Override
+  public CompletableFuture<Session[]> fetchSessionsAsync(String sessionType, String year, String country) {
+    String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/sessions")
+        .queryParamIfPresent("session_type", Optional.ofNullable(sessionType))
+        .queryParamIfPresent("year",         Optional.ofNullable(year))
+        .queryParamIfPresent("country_name", Optional.ofNullable(country))
+        .toUriString();
+
+    return call("sessions", url, Session[].class, new Session[0]);
+  }
+
+  @Override
+  public CompletableFuture<Driver[]> fetchDriversBySessionAsync(String sessionKey) {
+    String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/drivers")
+        .queryParam("session_key", sessionKey)
+        .toUriString();
+
+    return call("drivers", url, Driver[].class, new Driver[0]);
+  }
+
+  @Override
+  public CompletableFuture<Map<String, Driver[]>> fetchDriversByMeetingAsync(String meetingKey) {
+    String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/drivers")
+        .queryParam("meeting_key", meetingKey)
+        .toUriString();
+
+    return call("meeting-drivers", url, Driver[].class, new Driver[0]).thenApply(OpenF1ClientImpl::groupBySession);
+  }
+
+  private <T> CompletableFuture<T> call(String endpoint, String url, Class<T> type, T empty) {
+    return scheduler.submitAsync(endpoint, url, () -> concurrencyLimit.submit(() -> get(url, type, empty)))
+        .exceptionally(failure -> {
+          log.debug("OpenF1 call {} failed, returning empty result", url, failure);
+          return empty;
+        });
+  }
+
+  private <T> CompletableFuture<T> get(String url, Class<T> type, T empty) {
+    var result = new CompletableFuture<T>();
+    httpClient.execute(SimpleRequestBuilder.get(url).build(), new FutureCallback<SimpleHttpResponse>() {
+      @Override
+      public void completed(SimpleHttpResponse response) {
+        if (response.getCode() >= 300) {
+          result.completeExceptionally(statusException(response));
+          return;
+        }
+        byte[] body = response.getBodyBytes();
+        if (body == null || body.length == 0) {
+          result.complete(empty);
+          return;
+        }
+        try {
+          result.complete(Optional.ofNullable(objectMapper.readValue(body, type)).orElse(empty));
+        } catch (IOException e) {
+          result.completeExceptionally(e);
+        }
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        result.completeExceptionally(ex);
+      }
+
+      @Override
+      public void cancelled() {
+        result.completeExceptionally(new CancellationException("OpenF1 request cancelled: " + url));
+      }
+    });
+    return result;
+  }
+
+  /**
+   * The exception {@code RestTemplate} would throw for this status, so the scheduler handles
+   * both clients' failures the same way.
+   */
+  private static RestClientResponseException statusException(SimpleHttpResponse response) {
+    var status = HttpStatusCode.valueOf(response.getCode());
+    var headers = new HttpHeaders();
+    for (Header header : response.getHeaders()) {
+      headers.add(header.getName(), header.getValue());
+    }
+    byte[] body = response.getBodyBytes();
+    return status.is4xxClientError()
+        ? HttpClientErrorException.create(status, response.getReasonPhrase(), headers, body, null)
+        : HttpServerErrorException.create(status, response.getReasonPhrase(), headers, body, null);
+  }
+}
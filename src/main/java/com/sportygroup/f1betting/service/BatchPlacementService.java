@@ -0,0 +1,191 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.exceptions.DuplicateBetException;
+import com.sportygroup.f1betting.exceptions.EventFinishedException;
+import com.sportygroup.f1betting.exceptions.OutOfBalanceException;
+import com.sportygroup.f1betting.exceptions.UserNotFoundException;
+import com.sportygroup.f1betting.model.BetKey;
+import com.sportygroup.f1betting.model.PlaceBetRequest;
+import com.sportygroup.f1betting.model.PlaceBetResult;
+import com.sportygroup.f1betting.repository.BetRepository;
+import jakarta.validation.ConstraintViolationException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Places a batch of slips with per-slip results, so one bad slip does not fail the others.
+ * Slips are checked together with one query each for users, settled events and existing
+ * (user, event) pairs, and the remaining ones are inserted as one guarded JDBC batch. If that
+ * batch loses a race with a concurrent placement it is rolled back and its slips are placed
+ * one by one through {@link BettingService#placeBet}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchPlacementService {
+
+  private final BetRepository betRepository;
+  private final UserService userService;
+  private final EventService eventService;
+  private final BettingService bettingService;
+  private final EventStatsRegistry eventStats;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+
+  @Timed("betting.place.batch")
+  public List<PlaceBetResult> placeBatch(List<PlaceBetRequest> requests) {
+    var results = new PlaceBetResult[requests.size()];
+    List<Integer> accepted = prevalidate(requests, results);
+
+    if (!accepted.isEmpty()) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> insert(requests, accepted, results));
+      } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+        log.info("Batch of {} bets lost a race, placing them one by one", accepted.size(), e);
+        accepted.forEach(i -> results[i] = placeOne(i, requests.get(i)));
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Fills in the rejections that need no writes and returns the indexes of the other slips.
+   */
+  private List<Integer> prevalidate(List<PlaceBetRequest> requests, PlaceBetResult[] results) {
+    var valid = new ArrayList<Integer>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      var req = requests.get(i);
+      if (req == null) {
+        results[i] = PlaceBetResult.rejected(i, new IllegalArgumentException("Bet request must not be null"));
+        continue;
+      }
+      var violations = validator.validate(req);
+      if (violations.isEmpty()) {
+        valid.add(i);
+      } else {
+        results[i] = PlaceBetResult.rejected(i, new ConstraintViolationException(violations));
+      }
+    }
+    if (valid.isEmpty()) {
+      return valid;
+    }
+
+    Set<Long> userIds = valid.stream().map(i -> requests.get(i).userId()).collect(Collectors.toSet());
+    Set<Long> eventIds = valid.stream().map(i -> requests.get(i).eventId()).collect(Collectors.toSet());
+    var existingUsers = new HashSet<>(userService.findExistingIds(userIds));
+    var settledEvents = new HashSet<>(eventService.findSettledEventIds(eventIds));
+    var takenPairs = betRepository.findKeys(userIds, eventIds).stream()
+        .map(key -> new UserEvent(key.userId(), key.eventId()))
+        .collect(Collectors.toCollection(HashSet::new));
+
+    var accepted = new ArrayList<Integer>(valid.size());
+    for (int i : valid) {
+      var req = requests.get(i);
+      if (!existingUsers.contains(req.userId())) {
+        results[i] = PlaceBetResult.rejected(i,
+            new UserNotFoundException("User with id: %s not found".formatted(req.userId())));
+      } else if (settledEvents.contains(req.eventId())) {
+        results[i] = PlaceBetResult.rejected(i, eventFinished(req));
+      } else if (!takenPairs.add(UserEvent.of(req))) {
+        results[i] = PlaceBetResult.rejected(i, new DuplicateBetException(
+            "User %d has already placed a bet for event %d".formatted(req.userId(), req.eventId())));
+      } else {
+        accepted.add(i);
+      }
+    }
+    return accepted;
+  }
+
+  /**
+   * Reserves the stakes, then writes the events and bets in one batch each, with the open
+   * events locked in between. Slips whose event was settled in the meantime are not inserted
+   * and get their stake back on commit.
+   */
+  private void insert(List<PlaceBetRequest> requests, List<Integer> accepted, PlaceBetResult[] results) {
+    var reserved = new ArrayList<Integer>(accepted.size());
+    for (int i : accepted) {
+      try {
+        userService.reserveStake(requests.get(i));
+        reserved.add(i);
+      } catch (OutOfBalanceException e) {
+        results[i] = PlaceBetResult.rejected(i, e);
+      }
+    }
+    if (reserved.isEmpty()) {
+      return;
+    }
+
+    var bets = reserved.stream().map(i -> toBet(requests.get(i))).toList();
+    Set<Long> eventIds = bets.stream().map(b -> b.getEvent().getId()).collect(Collectors.toSet());
+    eventService.createEventsIfAbsent(eventIds);
+    // settled events are skipped by the guarded insert; the lock keeps the others open until commit
+    eventService.lockOpenEvents(eventIds);
+    betRepository.insertAllIfEventOpen(bets);
+
+    var inserted = betRepository.findKeys(
+            bets.stream().map(b -> b.getUser().getId()).collect(Collectors.toSet()),
+            bets.stream().map(b -> b.getEvent().getId()).collect(Collectors.toSet())).stream()
+        .collect(Collectors.toMap(key -> new UserEvent(key.userId(), key.eventId()), BetKey::betId));
+    var placed = new ArrayList<Bet>(reserved.size());
+    for (int n = 0; n < reserved.size(); n++) {
+      int i = reserved.get(n);
+      var req = requests.get(i);
+      var bet = bets.get(n);
+      Long betId = inserted.get(UserEvent.of(req));
+      if (betId != null) {
+        placed.add(bet.toBuilder().id(betId).build());
+        results[i] = PlaceBetResult.created(i, placed.get(placed.size() - 1));
+      } else {
+        userService.releaseStake(req);
+        results[i] = PlaceBetResult.rejected(i, eventFinished(req));
+      }
+    }
+    eventStats.recordPlaced(placed);
+  }
+
+  private PlaceBetResult placeOne(int index, PlaceBetRequest req) {
+    try {
+      return PlaceBetResult.created(index, bettingService.placeBet(req));
+    } catch (RuntimeException e) {
+      return PlaceBetResult.rejected(index, e);
+    }
+  }
+
+  private static Bet toBet(PlaceBetRequest req) {
+    return Bet.builder()
+        .user(User.builder().id(req.userId()).build())
+        .event(Event.builder().id(req.eventId()).build())
+        .driverId(req.driverId())
+        .amount(req.amountMinor())
+        .odds(req.oddsScaled())
+        .status(BetStatus.PENDING)
+        .build();
+  }
+
+  private static EventFinishedException eventFinished(PlaceBetRequest req) {
+    return new EventFinishedException(
+        "Can't place bet for already finished event (eventId=%d)".formatted(req.eventId()));
+  }
+
+  private record UserEvent(long userId, long eventId) {
+    static UserEvent of(PlaceBetRequest req) {
+      return new UserEvent(req.userId(), req.eventId());
+    }
+  }
+}
@@ -3,20 +3,31 @@ package com.sportygroup.f1betting.service;
 import com.sportygroup.f1betting.entity.Bet;
 import com.sportygroup.f1betting.entity.BetStatus;
 import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.SettlementStatus;
 import com.sportygroup.f1betting.entity.User;
 import com.sportygroup.f1betting.exceptions.DuplicateBetException;
 import com.sportygroup.f1betting.exceptions.EventFinishedException;
+import com.sportygroup.f1betting.exceptions.SettlementConflictException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.BetKey;
 import com.sportygroup.f1betting.model.EventOutcome;
 import com.sportygroup.f1betting.model.PlaceBetRequest;
 import com.sportygroup.f1betting.repository.BetRepository;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.annotation.Timed;
 import java.time.Instant;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,120 +38,175 @@ public class BettingService {
   private final BetRepository betRepository;
   private final UserService userService;
   private final EventService eventService;
-
+  private final EventStatsRegistry eventStats;
+  private final SettlementCheckpointRepository checkpointRepository;
+
+  /**
+   * Places a bet without reading anything first. The stake is reserved in the in-memory wallet,
+   * the event row is created if missing and locked while it has no winner, and the bet is
+   * inserted only if the event has no winner yet. The lock makes a concurrent settlement wait
+   * for the bet to commit. A second bet on the same event is rejected by the unique
+   * (user, event) constraint. The whole transaction is retried when it loses a race.
+   */
+  @Timed("betting.place")
+  @Retry(name = "betting")
   @Transactional
   public Bet placeBet(PlaceBetRequest placeBetRequest) {
-    validateNoDuplicateBet(placeBetRequest.userId(), placeBetRequest.eventId());
-
-    var event = eventService.findEventById(placeBetRequest.eventId())
-        .orElseGet(() -> eventService.saveEvent(Event.builder().id(placeBetRequest.eventId()).build()));
-
-    ensureEventOpen(event,placeBetRequest.eventId());
-    User user = userService.checkUserBalance(placeBetRequest);
+    userService.reserveStake(placeBetRequest);
+    eventService.createEventIfAbsent(placeBetRequest.eventId());
+    if (!eventService.lockOpenEvent(placeBetRequest.eventId())) {
+      throw eventFinished(placeBetRequest.eventId());
+    }
 
     var bet = Bet.builder()
-        .user(user)
-        .event(event)
+        .user(User.builder().id(placeBetRequest.userId()).build())
+        .event(Event.builder().id(placeBetRequest.eventId()).build())
         .driverId(placeBetRequest.driverId())
-        .amount(placeBetRequest.amount())
-        .odds(placeBetRequest.odds())
+        .amount(placeBetRequest.amountMinor())
+        .odds(placeBetRequest.oddsScaled())
         .status(BetStatus.PENDING)
         .build();
-    return betRepository.save(bet);
+    long betId = insertIfEventOpen(bet, placeBetRequest.userId(), placeBetRequest.eventId());
+    var placed = bet.toBuilder().id(betId).build();
+    eventStats.recordPlaced(List.of(placed));
+    return placed;
   }
 
+  /**
+   * Places all bets or none. Stakes are reserved in the wallets, missing events are created in
+   * one batch and locked in id order, and the bets are written with one batch of the guarded
+   * insert used by {@link #placeBet}. If any event has a winner, the whole batch fails and is
+   * rolled back.
+   */
+  @Timed("betting.place.bulk")
+  @Retry(name = "betting")
   @Transactional
-  public EventOutcome settleOutcome(Long eventId, Long winnerDriverId) {
-    List<Bet> pendingBets = betRepository.findByEvent_IdAndStatus(eventId, BetStatus.PENDING);
-    markEventAsSettled(eventId, winnerDriverId);
-    Map<Long, Double> deltaByUser = computeUserBalance(pendingBets, winnerDriverId);
-    updateBetStatuses(pendingBets, winnerDriverId);
-    updateUsersBalance(deltaByUser);
-    long numberOfWinningBets = calculateNumberBets(eventId, BetStatus.WON);
-    long numberOfLostBets = calculateNumberBets(eventId, BetStatus.LOST);
-    return new EventOutcome(eventId, winnerDriverId, numberOfWinningBets, numberOfLostBets);
-  }
-
-  private void validateNoDuplicateBet(Long userId, Long eventId) {
-    Optional.of(betRepository.existsByUser_IdAndEvent_Id(userId, eventId))
-        .filter(exists -> !exists)
-        .orElseThrow(() -> new DuplicateBetException(
-            "User %d has already placed a bet for event %d".formatted(userId, eventId)
-        ));
-  }
-
-  private void ensureEventOpen(Event event, Long eventId) {
-    Optional.ofNullable(event.getWinnerDriverId())
-        .ifPresent(winner -> {
-          throw new EventFinishedException(
-              "Can't place bet for already finished event (eventId=%d, winnerDriverId=%d)"
-                  .formatted(eventId, winner));
-        });
-  }
-
-  private void updateUsersBalance(Map<Long, Double> deltasByUserId) {
-    if (deltasByUserId.isEmpty()) return;
+  public List<Bet> placeBets(List<PlaceBetRequest> placeBetRequests) {
+    placeBetRequests.forEach(userService::reserveStake);
+
+    Set<Long> eventIds = placeBetRequests.stream()
+        .map(PlaceBetRequest::eventId)
+        .collect(Collectors.toCollection(TreeSet::new));
+    eventService.createEventsIfAbsent(eventIds);
+    var finished = eventService.lockOpenEvents(eventIds);
+    if (!finished.isEmpty()) {
+      throw new EventFinishedException(
+          "Can't place bets for already finished events (eventIds=%s)".formatted(finished));
+    }
 
-    List<User> users = userService.findAllById(deltasByUserId.keySet());
-    List<User> updated = users.stream()
-        .map(user -> {
-          double delta = deltasByUserId.getOrDefault(user.getId(), 0.0);
-          return user.toBuilder().balance(user.getBalance() + delta).build();
-        })
+    var bets = placeBetRequests.stream()
+        .map(req -> Bet.builder()
+            .user(User.builder().id(req.userId()).build())
+            .event(Event.builder().id(req.eventId()).build())
+            .driverId(req.driverId())
+            .amount(req.amountMinor())
+            .odds(req.oddsScaled())
+            .status(BetStatus.PENDING)
+            .build())
         .toList();
-
-    userService.saveAll(updated);
+    var placed = insertAllIfEventsOpen(bets);
+    eventStats.recordPlaced(placed);
+    return placed;
   }
 
-  private long calculateNumberBets(Long eventId, BetStatus betStatus) {
-    return betRepository.countByEvent_IdAndStatus(eventId, betStatus);
+  /**
+   * Settles all pending bets of an event with set-based statements. The winner is recorded
+   * first, which waits for placements holding the event lock and keeps new ones out until
+   * commit. Then come one aggregated payout query and balance batch for the winners (stakes
+   * were debited when the bets were placed), and one update per outcome whose row counts are
+   * the result. Like a chunked settlement it fails with {@link SettlementConflictException} if
+   * the event already has a different winner, and also while a chunked settlement of the event
+   * has not completed.
+   */
+  @Timed(value = "betting.settle", extraTags = {"mode", "bulk"})
+  @Retry(name = "betting")
+  @Transactional
+  public EventOutcome settleOutcome(Long eventId, Long winnerDriverId) {
+    Long recordedWinner = eventService.recordWinner(eventId, winnerDriverId, Instant.now());
+    ensureSameWinner(eventId, recordedWinner, winnerDriverId);
+    checkpointRepository.findById(eventId).ifPresent(checkpoint -> {
+      ensureSameWinner(eventId, checkpoint.getWinnerDriverId(), winnerDriverId);
+      if (checkpoint.getStatus() != SettlementStatus.COMPLETED) {
+        throw new SettlementConflictException("Event %d is being settled in chunks (jobId=%s)"
+            .formatted(eventId, checkpoint.getJobId()));
+      }
+    });
+    var payouts = betRepository.sumPendingPayouts(eventId, winnerDriverId);
+    var deltas = new BalanceDeltas(payouts.size());
+    payouts.forEach(payout -> deltas.add(payout.userId(), payout.amount()));
+    userService.creditBalances(deltas);
+    long numberOfWinningBets = betRepository.markWinningBets(eventId, winnerDriverId);
+    long numberOfLostBets = betRepository.markLosingBets(eventId, winnerDriverId);
+    eventStats.recordSettled(eventId, numberOfWinningBets, numberOfLostBets);
+    return new EventOutcome(eventId, winnerDriverId, numberOfWinningBets, numberOfLostBets);
   }
 
-  private Map<Long, Double> computeUserBalance(List<Bet> pendingBets, long winnerDriverId) {
-    if (pendingBets == null || pendingBets.isEmpty()) {
-      return Collections.emptyMap();
+  private long insertIfEventOpen(Bet bet, Long userId, Long eventId) {
+    try {
+      return betRepository.insertIfEventOpen(bet)
+          .orElseThrow(() -> eventFinished(eventId));
+    } catch (DataIntegrityViolationException e) {
+      if (violates(e, Bet.USER_EVENT_CONSTRAINT)) {
+        throw new DuplicateBetException(
+            "User %d has already placed a bet for event %d".formatted(userId, eventId));
+      }
+      throw e;
     }
-
-    return pendingBets.stream()
-        .collect(Collectors.toMap(
-            bet -> bet.getUser().getId(),
-            bet -> {
-              boolean isWinner = Objects.equals(winnerDriverId, bet.getDriverId());
-              return isWinner
-                  ? bet.getAmount() * bet.getOdds()
-                  : -bet.getAmount();
-            },
-            Double::sum
-        ));
   }
 
-  private void updateBetStatuses(List<Bet> bets, long winnerDriverId) {
-    if (bets == null || bets.isEmpty()) {
-      return;
+  /**
+   * Inserts the bets and reads their ids back. A bet whose row count is 0, or that cannot be
+   * read back when the driver reports no counts, was on a settled event.
+   */
+  private List<Bet> insertAllIfEventsOpen(List<Bet> bets) {
+    int[] counts;
+    try {
+      counts = betRepository.insertAllIfEventOpen(bets);
+    } catch (DataIntegrityViolationException e) {
+      if (violates(e, Bet.USER_EVENT_CONSTRAINT)) {
+        throw new DuplicateBetException("A user has already placed a bet for one of the events");
+      }
+      throw e;
     }
 
-    List<Bet> updatedBets = bets.stream()
-        .map(bet -> bet.toBuilder()
-            .status(Objects.equals(winnerDriverId, bet.getDriverId())
-                ? BetStatus.WON
-                : BetStatus.LOST)
-            .build())
-        .toList();
-
-    betRepository.saveAll(updatedBets);
+    var ids = betRepository.findKeys(
+            bets.stream().map(b -> b.getUser().getId()).collect(Collectors.toSet()),
+            bets.stream().map(b -> b.getEvent().getId()).collect(Collectors.toSet())).stream()
+        .collect(Collectors.toMap(key -> List.of(key.userId(), key.eventId()), BetKey::betId));
+    var finished = new TreeSet<Long>();
+    var placed = new ArrayList<Bet>(bets.size());
+    for (int i = 0; i < bets.size(); i++) {
+      var bet = bets.get(i);
+      Long betId = ids.get(List.of(bet.getUser().getId(), bet.getEvent().getId()));
+      if (counts[i] == 0 || betId == null) {
+        finished.add(bet.getEvent().getId());
+      } else {
+        placed.add(bet.toBuilder().id(betId).build());
+      }
+    }
+    if (!finished.isEmpty()) {
+      throw new EventFinishedException(
+          "Can't place bets for already finished events (eventIds=%s)".formatted(finished));
+    }
+    return placed;
   }
 
-  private Event markEventAsSettled(Long eventId, long winnerDriverId) {
-    Event base = eventService.findEventById(eventId)
-        .orElseGet(() -> Event.builder().id(eventId).build());
-
-    Event settled = base.toBuilder()
-        .winnerDriverId(winnerDriverId)
-        .settledAt(Instant.now())
-        .build();
+  private static boolean violates(DataIntegrityViolationException e, String constraint) {
+    return Optional.ofNullable(NestedExceptionUtils.getMostSpecificCause(e).getMessage())
+        .map(message -> message.toLowerCase(Locale.ROOT).contains(constraint))
+        .orElse(false);
+  }
 
-    return eventService.saveEvent(settled);
+  private static EventFinishedException eventFinished(Long eventId) {
+    return new EventFinishedException(
+        "Can't place bet for already finished event (eventId=%d)".formatted(eventId));
+  }
 
+  private static void ensureSameWinner(Long eventId, Long recordedWinner, Long requestedWinner) {
+    if (!Objects.equals(recordedWinner, requestedWinner)) {
+      throw new SettlementConflictException(
+          "Event %d is already settled with winnerDriverId=%d".formatted(eventId, recordedWinner));
+    }
   }
 
 }
@@ -0,0 +1,360 @@
+package com.sportygroup.f1betting.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sportygroup.f1betting.config.OpenF1CacheProperties;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import com.sportygroup.f1betting.model.SessionQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache in front of {@link OpenF1ClientImpl}. Results that only contain finished
+ * sessions are kept for {@code finishedTtl}, anything touching a live session for
+ * {@code liveTtl}. Once an entry is past its TTL it is still returned while a refresh runs
+ * on the OpenF1 refresh executor, and an empty (fallback) refresh never replaces data we already
+ * have. Refreshes are {@link OpenF1Priority#BACKGROUND} requests on their own workers, so they
+ * yield to misses someone is waiting for and never occupy the OpenF1 executor those misses run
+ * on. Cache misses are answered from {@link OpenF1SnapshotStore} first, so after a restart only
+ * session lists are revalidated upstream. Upstream fetches are timed as
+ * {@code openf1.upstream}; compared with {@code openf1.requests} that shows the time spent
+ * queued in the {@link OpenF1RequestScheduler} and retrying.
+ *
+ * <p>The {@link OpenF1AsyncClient} methods answer cache hits immediately. With
+ * {@code event.api.client=async} misses go to {@link AsyncOpenF1ClientImpl} and are cached once
+ * the response arrives, so no thread waits on OpenF1; concurrent misses for the same key share
+ * one upstream call. Otherwise they run the blocking lookup on the OpenF1 executor, where the
+ * cache itself coalesces concurrent loads.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingOpenF1Client implements OpenF1Client, OpenF1AsyncClient {
+
+  private final OpenF1Client delegate;
+  private final OpenF1AsyncClient asyncDelegate;
+  private final Executor openF1Executor;
+  private final OpenF1CacheProperties properties;
+  private final OpenF1SnapshotStore snapshotStore;
+  private final MeterRegistry meterRegistry;
+
+  private final Cache<String, Instant> sessionEnds;
+  private final LoadingCache<SessionQuery, Cached<Session[]>> sessions;
+  private final LoadingCache<String, Cached<Driver[]>> drivers;
+  private final LoadingCache<String, Cached<Map<String, Driver[]>>> meetingDrivers;
+
+  private final SingleFlight<SessionQuery, Cached<Session[]>> sessionFlights = new SingleFlight<>();
+  private final SingleFlight<String, Cached<Driver[]>> driverFlights = new SingleFlight<>();
+  private final SingleFlight<String, Cached<Map<String, Driver[]>>> meetingDriverFlights = new SingleFlight<>();
+
+  public CachingOpenF1Client(
+      @Qualifier("openF1ClientImpl") OpenF1Client delegate,
+      OpenF1CacheProperties properties,
+      OpenF1SnapshotStore snapshotStore,
+      @Qualifier("openF1Executor") Executor openF1Executor,
+      @Qualifier("openF1RefreshExecutor") Executor refreshExecutor,
+      MeterRegistry meterRegistry,
+      @Qualifier("asyncOpenF1ClientImpl") Optional<OpenF1AsyncClient> asyncDelegate
+  ) {
+    this.delegate = delegate;
+    this.asyncDelegate = asyncDelegate.orElse(null);
+    this.openF1Executor = openF1Executor;
+    this.properties = properties;
+    this.snapshotStore = snapshotStore;
+    this.meterRegistry = meterRegistry;
+    this.sessionEnds = Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .build();
+    this.sessions = CaffeineCacheMetrics.monitor(meterRegistry,
+        newCache(refreshExecutor, this::loadSessions, this::fetchSessionsUpstream), "openf1.sessions");
+    this.drivers = CaffeineCacheMetrics.monitor(meterRegistry,
+        newCache(refreshExecutor, this::loadDrivers, this::fetchDriversUpstream), "openf1.drivers");
+    this.meetingDrivers = CaffeineCacheMetrics.monitor(meterRegistry,
+        newCache(refreshExecutor, this::loadMeetingDrivers, this::fetchMeetingDriversUpstream), "openf1.meeting-drivers");
+  }
+
+  @Override
+  public Session[] fetchSessions(String sessionType, String year, String country) {
+    return read(sessions, new SessionQuery(sessionType, year, country));
+  }
+
+  @Override
+  public Driver[] fetchDriversBySession(String sessionKey) {
+    return read(drivers, sessionKey);
+  }
+
+  @Override
+  public Map<String, Driver[]> fetchDriversByMeeting(String meetingKey) {
+    return read(meetingDrivers, meetingKey);
+  }
+
+  @Override
+  public CompletableFuture<Session[]> fetchSessionsAsync(String sessionType, String year, String country) {
+    var query = new SessionQuery(sessionType, year, country);
+    return readAsync(sessions, sessionFlights, query, q -> sessionsFromSnapshot(q)
+        .map(CompletableFuture::completedFuture)
+        .orElseGet(() -> upstreamAsync("sessions",
+                () -> asyncDelegate.fetchSessionsAsync(q.sessionType(), q.year(), q.country()))
+            .thenApply(result -> sessionsFetched(q, result))));
+  }
+
+  @Override
+  public CompletableFuture<Driver[]> fetchDriversBySessionAsync(String sessionKey) {
+    return readAsync(drivers, driverFlights, sessionKey, key -> driversFromSnapshot(key)
+        .map(CompletableFuture::completedFuture)
+        .orElseGet(() -> upstreamAsync("drivers", () -> asyncDelegate.fetchDriversBySessionAsync(key))
+            .thenApply(result -> driversFetched(key, result))));
+  }
+
+  @Override
+  public CompletableFuture<Map<String, Driver[]>> fetchDriversByMeetingAsync(String meetingKey) {
+    return readAsync(meetingDrivers, meetingDriverFlights, meetingKey, key -> meetingDriversFromSnapshot(key)
+        .map(CompletableFuture::completedFuture)
+        .orElseGet(() -> upstreamAsync("meeting-drivers", () -> asyncDelegate.fetchDriversByMeetingAsync(key))
+            .thenApply(result -> meetingDriversFetched(key, result))));
+  }
+
+  private <K, V> V read(LoadingCache<K, Cached<V>> cache, K key) {
+    var cached = cache.get(key);
+    refreshIfStale(cache, key, cached);
+    return cached.value();
+  }
+
+  /**
+   * Concurrent misses for the same key share one load, which fills the cache before the callers
+   * are completed.
+   */
+  private <K, V> CompletableFuture<V> readAsync(LoadingCache<K, Cached<V>> cache, SingleFlight<K, Cached<V>> flights,
+      K key, Function<K, CompletableFuture<Cached<V>>> load) {
+    if (asyncDelegate == null) {
+      return CompletableFuture.supplyAsync(() -> read(cache, key), openF1Executor);
+    }
+    var cached = cache.getIfPresent(key);
+    if (cached != null) {
+      refreshIfStale(cache, key, cached);
+      return CompletableFuture.completedFuture(cached.value());
+    }
+    return flights.execute(key, () -> load.apply(key).thenApply(loaded -> {
+      cache.put(key, loaded);
+      return loaded;
+    })).thenApply(Cached::value);
+  }
+
+  private static <K, V> void refreshIfStale(LoadingCache<K, Cached<V>> cache, K key, Cached<V> cached) {
+    if (cached.isStale(Instant.now())) {
+      log.debug("Serving stale OpenF1 entry for {} while refreshing", key);
+      cache.refresh(key);
+    }
+  }
+
+  private Cached<Session[]> loadSessions(SessionQuery query) {
+    return sessionsFromSnapshot(query).orElseGet(() -> fetchSessionsUpstream(query));
+  }
+
+  private Optional<Cached<Session[]>> sessionsFromSnapshot(SessionQuery query) {
+    return snapshotStore.findSessions(query)
+        .map(entry -> sessionsCached(entry.sessions(), entry.fetchedAt()).servableUntilRefreshed(Instant.now()));
+  }
+
+  private Cached<Session[]> fetchSessionsUpstream(SessionQuery query) {
+    return sessionsFetched(query, upstream("sessions",
+        () -> delegate.fetchSessions(query.sessionType(), query.year(), query.country())));
+  }
+
+  private Cached<Session[]> sessionsFetched(SessionQuery query, Session[] result) {
+    var fetchedAt = Instant.now();
+    if (result.length > 0) {
+      snapshotStore.saveSessions(query, result, fetchedAt);
+    }
+    return sessionsCached(result, fetchedAt);
+  }
+
+  private Cached<Session[]> sessionsCached(Session[] result, Instant fetchedAt) {
+    Arrays.stream(result).forEach(this::rememberSessionEnd);
+
+    boolean allFinished = Arrays.stream(result)
+        .allMatch(s -> isFinished(s.session_key()));
+    return cached(result, result.length == 0, fetchedAt, allFinished);
+  }
+
+  private Cached<Driver[]> loadDrivers(String sessionKey) {
+    return driversFromSnapshot(sessionKey).orElseGet(() -> fetchDriversUpstream(sessionKey));
+  }
+
+  private Optional<Cached<Driver[]>> driversFromSnapshot(String sessionKey) {
+    return snapshotStore.findDrivers(sessionKey)
+        .map(result -> cached(result, false, Instant.now(), true));
+  }
+
+  private Cached<Driver[]> fetchDriversUpstream(String sessionKey) {
+    return driversFetched(sessionKey, upstream("drivers", () -> delegate.fetchDriversBySession(sessionKey)));
+  }
+
+  private Cached<Driver[]> driversFetched(String sessionKey, Driver[] result) {
+    boolean finished = isFinished(sessionKey);
+    if (finished && result.length > 0) {
+      snapshotStore.saveDrivers(sessionKey, result);
+    }
+    return cached(result, result.length == 0, Instant.now(), finished);
+  }
+
+  private Cached<Map<String, Driver[]>> loadMeetingDrivers(String meetingKey) {
+    return meetingDriversFromSnapshot(meetingKey).orElseGet(() -> fetchMeetingDriversUpstream(meetingKey));
+  }
+
+  private Optional<Cached<Map<String, Driver[]>>> meetingDriversFromSnapshot(String meetingKey) {
+    return snapshotStore.findMeetingDrivers(meetingKey)
+        .map(result -> cached(result, false, Instant.now(), true));
+  }
+
+  private Cached<Map<String, Driver[]>> fetchMeetingDriversUpstream(String meetingKey) {
+    return meetingDriversFetched(meetingKey,
+        upstream("meeting-drivers", () -> delegate.fetchDriversByMeeting(meetingKey)));
+  }
+
+  /**
+   * Also seeds the per-session driver cache, so later single-session lookups for the same
+   * meeting never go upstream.
+   */
+  private Cached<Map<String, Driver[]>> meetingDriversFetched(String meetingKey, Map<String, Driver[]> result) {
+    var fetchedAt = Instant.now();
+    result.forEach((sessionKey, sessionDrivers) -> {
+      boolean finished = isFinished(sessionKey);
+      drivers.put(sessionKey, cached(sessionDrivers, sessionDrivers.length == 0, fetchedAt, finished));
+      if (finished && sessionDrivers.length > 0) {
+        snapshotStore.saveDrivers(sessionKey, sessionDrivers);
+      }
+    });
+
+    boolean allFinished = result.keySet().stream().allMatch(this::isFinished);
+    if (allFinished && !result.isEmpty()) {
+      snapshotStore.saveMeetingDrivers(meetingKey, result);
+    }
+    return cached(result, result.isEmpty(), fetchedAt, allFinished);
+  }
+
+  private <T> T upstream(String endpoint, Supplier<T> fetch) {
+    return Timer.builder("openf1.upstream")
+        .tag("endpoint", endpoint)
+        .register(meterRegistry)
+        .record(fetch);
+  }
+
+  private <T> CompletableFuture<T> upstreamAsync(String endpoint, Supplier<CompletableFuture<T>> fetch) {
+    var sample = Timer.start(meterRegistry);
+    return fetch.get().whenComplete((result, failure) -> sample.stop(Timer.builder("openf1.upstream")
+        .tag("endpoint", endpoint)
+        .register(meterRegistry)));
+  }
+
+  private <V> Cached<V> cached(V value, boolean empty, Instant fetchedAt, boolean finished) {
+    var ttl = finished ? properties.finishedTtl() : properties.liveTtl();
+    return new Cached<>(value, empty, fetchedAt, ttl);
+  }
+
+  private void rememberSessionEnd(Session s) {
+    if (s.session_key() == null) {
+      return;
+    }
+    parseInstant(s.date_end()).ifPresent(end -> sessionEnds.put(s.session_key(), end));
+  }
+
+  private boolean isFinished(String sessionKey) {
+    return Optional.ofNullable(sessionKey)
+        .map(sessionEnds::getIfPresent)
+        .map(end -> end.isBefore(Instant.now()))
+        .orElse(false);
+  }
+
+  private static Optional<Instant> parseInstant(String value) {
+    try {
+      return Optional.ofNullable(value).map(v -> OffsetDateTime.parse(v).toInstant());
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  private <K, V> LoadingCache<K, Cached<V>> newCache(
+      Executor executor, Function<K, Cached<V>> load, Function<K, Cached<V>> fetch) {
+    return Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .expireAfter(new StaleWindowExpiry<K, V>(properties.staleWindow()))
+        .executor(executor)
+        .recordStats()
+        .build(new CacheLoader<K, Cached<V>>() {
+          @Override
+          public Cached<V> load(K key) {
+            return load.apply(key);
+          }
+
+          @Override
+          public Cached<V> reload(K key, Cached<V> oldValue) {
+            var fresh = OpenF1Priority.BACKGROUND.call(() -> fetch.apply(key));
+            return fresh.empty() && !oldValue.empty() ? oldValue : fresh;
+          }
+        });
+  }
+
+  record Cached<V>(V value, boolean empty, Instant fetchedAt, Duration ttl) {
+
+    Cached {
+      Objects.requireNonNull(value);
+    }
+
+    boolean isStale(Instant now) {
+      return !now.isBefore(fetchedAt.plus(ttl));
+    }
+
+    /** Moves an outdated entry into the stale window so it is served once and then refreshed. */
+    Cached<V> servableUntilRefreshed(Instant now) {
+      return isStale(now) ? new Cached<>(value, empty, now.minus(ttl), ttl) : this;
+    }
+  }
+
+  /**
+   * Keeps an entry for its TTL plus the stale window. Empty results expire immediately so a
+   * fallback response is never served from cache.
+   */
+  private record StaleWindowExpiry<K, V>(Duration staleWindow) implements Expiry<K, Cached<V>> {
+
+    @Override
+    public long expireAfterCreate(K key, Cached<V> value, long currentTime) {
+      if (value.empty()) {
+        return 0;
+      }
+      var expiresAt = value.fetchedAt().plus(value.ttl()).plus(staleWindow);
+      return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, Cached<V> value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(K key, Cached<V> value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.config.SettlementProperties;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.SettlementCheckpoint;
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import com.sportygroup.f1betting.exceptions.SettlementConflictException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.EventOutcome;
+import com.sportygroup.f1betting.model.Money;
+import com.sportygroup.f1betting.model.SettlementProgress;
+import com.sportygroup.f1betting.model.SettlementRow;
+import com.sportygroup.f1betting.repository.BetRepository;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
+import io.micrometer.core.annotation.Timed;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Settles very large events in keyset-paginated chunks of pending bets, each chunk in its own
+ * transaction together with the checkpoint that records how far settlement got. A chunk's bets
+ * are locked when they are read, so exactly the bets it pays are the ones it transitions. Calling
+ * {@link #settle} again for the same event resumes after the last committed chunk, and also
+ * retries a settlement whose last run {@link SettlementStatus#FAILED failed}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedSettlementService {
+
+  private final BetRepository betRepository;
+  private final UserService userService;
+  private final EventService eventService;
+  private final SettlementCheckpointRepository checkpointRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final SettlementProperties settlementProperties;
+  private final EventStatsRegistry eventStats;
+
+  @Timed(value = "betting.settle", extraTags = {"mode", "chunked"})
+  public EventOutcome settle(Long eventId, Long winnerDriverId) {
+    begin(eventId, winnerDriverId);
+
+    int chunks = 0;
+    while (Boolean.TRUE.equals(transactionTemplate.execute(status -> processChunk(eventId)))) {
+      chunks++;
+    }
+
+    var checkpoint = transactionTemplate.execute(status -> complete(eventId));
+    log.info("Settled event {} in {} chunks: {} won, {} lost",
+        eventId, chunks, checkpoint.getWonBets(), checkpoint.getLostBets());
+    return toOutcome(checkpoint);
+  }
+
+  /**
+   * Records the winner and creates (or reopens) the checkpoint without settling any bets.
+   * Fails with {@link SettlementConflictException} if the event already has a different winner.
+   */
+  public SettlementCheckpoint begin(Long eventId, Long winnerDriverId) {
+    return transactionTemplate.execute(status -> start(eventId, winnerDriverId));
+  }
+
+  public void markFailed(Long eventId, Throwable cause) {
+    transactionTemplate.executeWithoutResult(status -> checkpointRepository.findById(eventId)
+        .filter(c -> c.getStatus() == SettlementStatus.IN_PROGRESS)
+        .ifPresent(c -> checkpointRepository.save(c.toBuilder()
+            .status(SettlementStatus.FAILED)
+            .failure(String.valueOf(cause.getMessage()))
+            .updatedAt(Instant.now())
+            .build())));
+  }
+
+  public Optional<SettlementProgress> findProgress(Long eventId) {
+    return checkpointRepository.findById(eventId).map(this::toProgress);
+  }
+
+  public Optional<SettlementProgress> findProgressByJobId(String jobId) {
+    return checkpointRepository.findByJobId(jobId).map(this::toProgress);
+  }
+
+  private SettlementProgress toProgress(SettlementCheckpoint c) {
+    return new SettlementProgress(
+        c.getJobId(),
+        c.getEventId(),
+        c.getWinnerDriverId(),
+        c.getStatus(),
+        c.getLastBetId(),
+        c.getWonBets(),
+        c.getLostBets(),
+        betRepository.countByEvent_IdAndStatus(c.getEventId(), BetStatus.PENDING),
+        c.getStartedAt(),
+        c.getUpdatedAt(),
+        c.getCompletedAt(),
+        c.getFailure(),
+        c.getStatus() == SettlementStatus.COMPLETED ? toOutcome(c) : null
+    );
+  }
+
+  private EventOutcome toOutcome(SettlementCheckpoint c) {
+    return new EventOutcome(c.getEventId(), c.getWinnerDriverId(), c.getWonBets(), c.getLostBets());
+  }
+
+  private SettlementCheckpoint start(Long eventId, Long winnerDriverId) {
+    // the winner goes first: once it is written no bet can be placed below the chunk cursor
+    ensureSameWinner(eventId, eventService.recordWinner(eventId, winnerDriverId, null), winnerDriverId);
+
+    var checkpoint = checkpointRepository.findById(eventId)
+        .orElseGet(() -> checkpointRepository.save(SettlementCheckpoint.builder()
+            .eventId(eventId)
+            .jobId(UUID.randomUUID().toString())
+            .winnerDriverId(winnerDriverId)
+            .status(SettlementStatus.IN_PROGRESS)
+            .startedAt(Instant.now())
+            .build()));
+    ensureSameWinner(eventId, checkpoint.getWinnerDriverId(), winnerDriverId);
+    if (checkpoint.getStatus() == SettlementStatus.FAILED) {
+      checkpoint = checkpointRepository.save(checkpoint.toBuilder()
+          .status(SettlementStatus.IN_PROGRESS)
+          .failure(null)
+          .updatedAt(Instant.now())
+          .build());
+    }
+    return checkpoint;
+  }
+
+  private boolean processChunk(Long eventId) {
+    var checkpoint = checkpointRepository.findById(eventId).orElseThrow();
+    long winnerDriverId = checkpoint.getWinnerDriverId();
+    List<SettlementRow> rows = betRepository.lockPendingChunk(
+        eventId, checkpoint.getLastBetId(), settlementProperties.chunkSize());
+    if (rows.isEmpty()) {
+      return false;
+    }
+
+    Map<Boolean, List<Long>> betIdsByWin = rows.stream()
+        .collect(Collectors.partitioningBy(
+            row -> Objects.equals(winnerDriverId, row.driverId()),
+            Collectors.mapping(SettlementRow::betId, Collectors.toList())));
+    int won = markBets(betIdsByWin.get(true), BetStatus.WON);
+    int lost = markBets(betIdsByWin.get(false), BetStatus.LOST);
+    if (won + lost != rows.size()) {
+      // the rows are locked, so this only happens if something bypassed the lock; pay nothing
+      throw new OptimisticLockingFailureException(
+          "Settled %d of %d locked bets of event %d".formatted(won + lost, rows.size(), eventId));
+    }
+    userService.creditBalances(computePayouts(rows, winnerDriverId));
+    eventStats.recordSettled(eventId, winnerDriverId, rows);
+
+    checkpointRepository.save(checkpoint.toBuilder()
+        .lastBetId(rows.get(rows.size() - 1).betId())
+        .wonBets(checkpoint.getWonBets() + won)
+        .lostBets(checkpoint.getLostBets() + lost)
+        .updatedAt(Instant.now())
+        .build());
+    return true;
+  }
+
+  private SettlementCheckpoint complete(Long eventId) {
+    var checkpoint = checkpointRepository.findById(eventId).orElseThrow();
+    if (checkpoint.getStatus() == SettlementStatus.COMPLETED) {
+      return checkpoint;
+    }
+
+    eventService.findEventById(eventId)
+        .filter(event -> event.getSettledAt() == null)
+        .ifPresent(event -> eventService.saveEvent(event.toBuilder().settledAt(Instant.now()).build()));
+
+    var now = Instant.now();
+    return checkpointRepository.save(checkpoint.toBuilder()
+        .status(SettlementStatus.COMPLETED)
+        .updatedAt(now)
+        .completedAt(now)
+        .build());
+  }
+
+  private int markBets(List<Long> betIds, BetStatus status) {
+    return betIds.isEmpty() ? 0 : betRepository.markBets(betIds, status);
+  }
+
+  private void ensureSameWinner(Long eventId, Long recordedWinner, Long requestedWinner) {
+    if (!Objects.equals(recordedWinner, requestedWinner)) {
+      throw new SettlementConflictException(
+          "Event %d is already settled with winnerDriverId=%d".formatted(eventId, recordedWinner));
+    }
+  }
+
+  /**
+   * Per-user payout of a chunk in minor units, accumulated in a primitive map so no key or
+   * value is boxed per bet. Losing bets add nothing: their stakes were debited at placement.
+   */
+  static BalanceDeltas computePayouts(List<SettlementRow> rows, long winnerDriverId) {
+    var deltas = new BalanceDeltas(rows.size());
+    for (SettlementRow row : rows) {
+      if (row.driverId() == winnerDriverId) {
+        deltas.add(row.userId(), Money.payout(row.amount(), row.odds()));
+      }
+    }
+    return deltas;
+  }
+
+}
@@ -2,7 +2,14 @@ package com.sportygroup.f1betting.service;
 
 import com.sportygroup.f1betting.model.EventDetails;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EventProvider {
   List<EventDetails> getAllEvents(String sessionType, String year, String country);
+
+  /**
+   * Hands each event to {@code consumer} on the calling thread as soon as its drivers are
+   * resolved, in completion order rather than session order.
+   */
+  void streamEvents(String sessionType, String year, String country, Consumer<EventDetails> consumer);
 }
@@ -3,8 +3,15 @@ package com.sportygroup.f1betting.service;
 import com.sportygroup.f1betting.entity.Event;
 import com.sportygroup.f1betting.model.EventDetails;
 import com.sportygroup.f1betting.repository.EventRepository;
+import io.micrometer.core.annotation.Timed;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -15,14 +22,67 @@ public class EventService {
   private final EventProvider eventProvider;
   private final EventRepository eventRepository;
 
+  @Timed("events.list")
   public List<EventDetails> findEvents(String sessionType, String year, String country) {
     return eventProvider.getAllEvents(sessionType,year,country);
   }
 
+  public void streamEvents(String sessionType, String year, String country, Consumer<EventDetails> consumer) {
+    eventProvider.streamEvents(sessionType, year, country, consumer);
+  }
+
   public Optional<Event> findEventById(Long eventId) {
     return eventRepository.findById(eventId);
   }
 
+  public void createEventIfAbsent(Long eventId) {
+    eventRepository.insertIfAbsent(eventId);
+  }
+
+  public void createEventsIfAbsent(Collection<Long> eventIds) {
+    eventRepository.insertAllIfAbsent(eventIds);
+  }
+
+  /**
+   * Locks the event until the transaction ends if it has no winner yet, so it cannot be settled
+   * before the bets placed in this transaction commit.
+   *
+   * @return {@code false} if the event is already settled or does not exist
+   */
+  public boolean lockOpenEvent(Long eventId) {
+    return eventRepository.lockIfOpen(eventId);
+  }
+
+  /**
+   * Same as {@link #lockOpenEvent} for several events, locked in id order.
+   *
+   * @return the events that are settled or do not exist
+   */
+  public Set<Long> lockOpenEvents(Collection<Long> eventIds) {
+    return new TreeSet<>(eventIds).stream()
+        .filter(eventId -> !eventRepository.lockIfOpen(eventId))
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * Records the winner of the event, creating the event if it is missing, and keeps it locked
+   * until the transaction ends, so no bet is placed while the transaction settles the event.
+   *
+   * @return the winner the event has afterwards, which differs from {@code winnerDriverId} if
+   *     another winner was recorded before
+   */
+  public Long recordWinner(Long eventId, long winnerDriverId, Instant settledAt) {
+    eventRepository.insertIfAbsent(eventId);
+    if (eventRepository.setWinnerIfAbsent(eventId, winnerDriverId, settledAt)) {
+      return winnerDriverId;
+    }
+    return eventRepository.findById(eventId).map(Event::getWinnerDriverId).orElse(null);
+  }
+
+  public List<Long> findSettledEventIds(Collection<Long> eventIds) {
+    return eventRepository.findSettledIds(eventIds);
+  }
+
   public Event saveEvent(Event event) {
     return eventRepository.save(event);
   }
@@ -0,0 +1,205 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.model.EventStats;
+import com.sportygroup.f1betting.model.Money;
+import com.sportygroup.f1betting.model.SettlementRow;
+import com.sportygroup.f1betting.repository.BetRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-event bet aggregates kept in memory and updated incrementally once the placing or
+ * settling transaction commits, so reading them never scans {@code bets}. They are rebuilt
+ * from {@code bets} with one grouped query on startup, before the web server accepts
+ * requests, so no placement can be recorded while the totals are read. Like
+ * {@link WalletLedger} this assumes a single application instance. Each event with pending
+ * bets is exported as a {@code bets.pending} gauge tagged with the event id; the gauge is
+ * removed once the event is settled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventStatsRegistry implements SmartInitializingSingleton {
+
+  private final BetRepository betRepository;
+  private final MeterRegistry meterRegistry;
+
+  private volatile Map<Long, Book> books = new ConcurrentHashMap<>();
+
+  /**
+   * Runs once all singletons exist, which is before the web server starts.
+   */
+  @Override
+  public void afterSingletonsInstantiated() {
+    rebuild();
+  }
+
+  /**
+   * Replaces the aggregates with ones read from {@code bets}. They are built aside and swapped
+   * in at once, so readers see either the old or the new aggregates, never a partial set.
+   */
+  public void rebuild() {
+    books.values().forEach(book -> meterRegistry.remove(book.pendingGauge));
+    Map<Long, Book> rebuilt = new ConcurrentHashMap<>();
+    betRepository.sumTotals().forEach(totals -> {
+      var book = rebuilt.computeIfAbsent(totals.eventId(), this::newBook);
+      synchronized (book) {
+        book.totalStakes += totals.stakes();
+        book.betsByStatus[totals.status().ordinal()] += totals.bets();
+        if (totals.status() == BetStatus.PENDING) {
+          book.driver(totals.driverId()).add(totals.bets(), totals.payouts());
+        }
+      }
+    });
+    rebuilt.values().forEach(this::removeGaugeIfSettled);
+    books = rebuilt;
+    log.info("Loaded bet statistics for {} events", rebuilt.size());
+  }
+
+  public Optional<EventStats> find(Long eventId) {
+    return Optional.ofNullable(books.get(eventId)).map(book -> book.snapshot(eventId));
+  }
+
+  public void recordPlaced(List<Bet> bets) {
+    afterCommit(() -> bets.forEach(this::placed));
+  }
+
+  /**
+   * Records that all pending bets of the event were settled, {@code wonBets} of them as won and
+   * {@code lostBets} as lost, as counted by the statements that settled them.
+   */
+  public void recordSettled(Long eventId, long wonBets, long lostBets) {
+    afterCommit(() -> {
+      var book = books.get(eventId);
+      if (book == null) {
+        return;
+      }
+      synchronized (book) {
+        book.settle(true, wonBets);
+        book.settle(false, lostBets);
+        book.pendingByDriver.clear();
+        removeGaugeIfSettled(book);
+      }
+    });
+  }
+
+  /**
+   * Records that the given pending bets of the event were settled for {@code winnerDriverId}.
+   */
+  public void recordSettled(Long eventId, long winnerDriverId, List<SettlementRow> rows) {
+    afterCommit(() -> {
+      var book = books.get(eventId);
+      if (book == null) {
+        return;
+      }
+      synchronized (book) {
+        for (SettlementRow row : rows) {
+          book.driver(row.driverId()).add(-1, -Money.payout(row.amount(), row.odds()));
+          book.settle(row.driverId() == winnerDriverId, 1);
+        }
+        book.pendingByDriver.values().removeIf(driver -> driver.pendingBets <= 0);
+        removeGaugeIfSettled(book);
+      }
+    });
+  }
+
+  private void placed(Bet bet) {
+    var book = book(bet.getEvent().getId());
+    synchronized (book) {
+      book.totalStakes += bet.getAmount();
+      book.betsByStatus[bet.getStatus().ordinal()]++;
+      if (bet.getStatus() == BetStatus.PENDING) {
+        book.driver(bet.getDriverId()).add(1, Money.payout(bet.getAmount(), bet.getOdds()));
+      }
+    }
+  }
+
+  private Book book(Long eventId) {
+    return books.computeIfAbsent(eventId, this::newBook);
+  }
+
+  private Book newBook(Long eventId) {
+    var book = new Book();
+    book.pendingGauge = Gauge.builder("bets.pending", book, Book::pending)
+        .description("Pending bets of the event")
+        .tag("event", String.valueOf(eventId))
+        .register(meterRegistry);
+    return book;
+  }
+
+  private void removeGaugeIfSettled(Book book) {
+    if (book.pending() == 0) {
+      meterRegistry.remove(book.pendingGauge);
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  /**
+   * Mutable aggregates of one event, guarded by the book's monitor.
+   */
+  private static final class Book {
+    private long totalStakes;
+    private final long[] betsByStatus = new long[BetStatus.values().length];
+    private final Map<Long, DriverBook> pendingByDriver = new HashMap<>();
+    private Gauge pendingGauge;
+
+    private DriverBook driver(Long driverId) {
+      return pendingByDriver.computeIfAbsent(driverId, id -> new DriverBook());
+    }
+
+    private synchronized long pending() {
+      return betsByStatus[BetStatus.PENDING.ordinal()];
+    }
+
+    private void settle(boolean won, long bets) {
+      betsByStatus[BetStatus.PENDING.ordinal()] -= bets;
+      betsByStatus[(won ? BetStatus.WON : BetStatus.LOST).ordinal()] += bets;
+    }
+
+    private synchronized EventStats snapshot(long eventId) {
+      var byStatus = new EnumMap<BetStatus, Long>(BetStatus.class);
+      for (BetStatus status : BetStatus.values()) {
+        byStatus.put(status, betsByStatus[status.ordinal()]);
+      }
+      var payouts = new HashMap<Long, Long>();
+      pendingByDriver.forEach((driverId, driver) -> payouts.put(driverId, driver.potentialPayout));
+      return new EventStats(eventId, totalStakes, byStatus, payouts);
+    }
+  }
+
+  private static final class DriverBook {
+    private long pendingBets;
+    private long potentialPayout;
+
+    private void add(long bets, long payout) {
+      pendingBets += bets;
+      potentialPayout += payout;
+    }
+  }
+}
@@ -4,33 +4,150 @@ import com.sportygroup.f1betting.model.Driver;
 import com.sportygroup.f1betting.model.DriverMarket;
 import com.sportygroup.f1betting.model.EventDetails;
 import com.sportygroup.f1betting.model.Session;
+import com.sportygroup.f1betting.model.SessionQuery;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class EventsProviderImpl implements EventProvider{
 
 
-  private final OpenF1Client openF1Client;
+  private final OpenF1AsyncClient openF1Client;
 
+  @Value("${spring.mvc.async.request-timeout:5m}")
+  private Duration streamTimeout = Duration.ofMinutes(5);
+
+  private final SingleFlight<SessionQuery, List<EventDetails>> listings = new SingleFlight<>();
+
+  /**
+   * Drivers are fetched once per meeting rather than once per session, so a listing costs
+   * O(meetings) upstream calls. Sessions without a meeting key fall back to a per-session lookup.
+   * The lookups are composed as one pipeline and the caller only waits for its end. Concurrent
+   * identical listings share one pipeline and get the same result.
+   */
   @Override
   public List<EventDetails> getAllEvents(String sessionType, String year, String country) {
-    var sessions = openF1Client.fetchSessions(sessionType, year, country);
+    return listings.execute(new SessionQuery(sessionType, year, country), () ->
+            openF1Client.fetchSessionsAsync(sessionType, year, country)
+                .thenCompose(sessions -> allOf(resolveEvents(sessions, new ArrayList<>()))))
+        .join();
+  }
+
+  /**
+   * Gives up after {@code spring.mvc.async.request-timeout}, like the async request around it.
+   * When the consumer fails (typically because the client went away), the thread is
+   * interrupted or the time is up, the lookups that are still outstanding are cancelled, so
+   * those not yet started on the OpenF1 executor never run.
+   */
+  @Override
+  public void streamEvents(String sessionType, String year, String country, Consumer<EventDetails> consumer) {
+    long deadline = System.nanoTime() + streamTimeout.toNanos();
+    var lookups = new ArrayList<CompletableFuture<?>>();
+    try {
+      var sessionsLookup = openF1Client.fetchSessionsAsync(sessionType, year, country);
+      lookups.add(sessionsLookup);
+      var sessions = sessionsLookup.get(remaining(deadline), TimeUnit.NANOSECONDS);
+
+      var completed = new LinkedBlockingQueue<EventDetails>();
+      var events = resolveEvents(sessions, lookups);
+      lookups.addAll(events);
+      events.forEach(future -> future.thenAccept(completed::add));
+      for (int i = 0; i < sessions.length; i++) {
+        var next = completed.poll(remaining(deadline), TimeUnit.NANOSECONDS);
+        if (next == null) {
+          throw new IllegalStateException("Timed out after %s while streaming events".formatted(streamTimeout));
+        }
+        consumer.accept(next);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while streaming events", e);
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Timed out after %s while streaming events".formatted(streamTimeout), e);
+    } catch (ExecutionException e) {
+      throw new CompletionException(e.getCause());
+    } finally {
+      lookups.forEach(lookup -> lookup.cancel(false));
+    }
+  }
+
+  private static long remaining(long deadline) {
+    return Math.max(0, deadline - System.nanoTime());
+  }
+
+  /**
+   * Starts the driver lookups for all sessions and returns one future per session, in session
+   * order. The futures never complete exceptionally. The upstream lookups that were started are
+   * added to {@code lookups}, so the caller can cancel them.
+   */
+  private List<CompletableFuture<EventDetails>> resolveEvents(Session[] sessions, List<CompletableFuture<?>> lookups) {
+    Map<String, CompletableFuture<Map<String, Driver[]>>> driversByMeeting = Arrays.stream(sessions)
+        .map(Session::meeting_key)
+        .filter(Objects::nonNull)
+        .distinct()
+        .collect(Collectors.toMap(Function.identity(), this::fetchMeetingDriversAsync));
+    lookups.addAll(driversByMeeting.values());
+
     return Arrays.stream(sessions)
-        .map(this::toEventDetails)
+        .map(s -> toEventDetailsAsync(s, driversByMeeting.get(s.meeting_key()), lookups))
         .toList();
   }
 
-  private EventDetails toEventDetails(Session s) {
-    var drivers = openF1Client.fetchDriversBySession(s.session_key());
-    var market  = Arrays.stream(drivers)
+  private CompletableFuture<Map<String, Driver[]>> fetchMeetingDriversAsync(String meetingKey) {
+    return openF1Client.fetchDriversByMeetingAsync(meetingKey);
+  }
+
+  private CompletableFuture<EventDetails> toEventDetailsAsync(
+      Session s, CompletableFuture<Map<String, Driver[]>> meetingDrivers, List<CompletableFuture<?>> lookups) {
+    CompletableFuture<EventDetails> details;
+    if (meetingDrivers == null) {
+      var sessionDrivers = openF1Client.fetchDriversBySessionAsync(s.session_key());
+      lookups.add(sessionDrivers);
+      details = sessionDrivers.thenApply(drivers -> toEventDetails(s, toMarket(drivers)));
+    } else {
+      details = meetingDrivers.thenApply(drivers ->
+          toEventDetails(s, toMarket(drivers.getOrDefault(s.session_key(), new Driver[0]))));
+    }
+
+    return details
+        .exceptionally(ex -> {
+          log.warn("Failed to resolve drivers for session {}, returning empty market", s.session_key(), ex);
+          return toEventDetails(s, List.of());
+        });
+  }
+
+  private static CompletableFuture<List<EventDetails>> allOf(List<CompletableFuture<EventDetails>> futures) {
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+  }
+
+  private List<DriverMarket> toMarket(Driver[] drivers) {
+    return Arrays.stream(drivers)
         .map(this::toDriverMarket)
         .toList();
+  }
 
+  private EventDetails toEventDetails(Session s, List<DriverMarket> market) {
     return new EventDetails(
         s.session_key(),
         s.session_type(),
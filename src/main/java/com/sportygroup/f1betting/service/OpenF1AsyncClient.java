@@ -0,0 +1,22 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link OpenF1Client}. Like the blocking client's fallbacks, a
+ * failed lookup completes with an empty result instead of exceptionally.
+ */
+public interface OpenF1AsyncClient {
+  CompletableFuture<Session[]> fetchSessionsAsync(String sessionType, String year, String country);
+  CompletableFuture<Driver[]>  fetchDriversBySessionAsync(String sessionKey);
+
+  /**
+   * Fetches the drivers of every session of a meeting in one upstream call.
+   *
+   * @return driver lists keyed by {@code session_key}
+   */
+  CompletableFuture<Map<String, Driver[]>> fetchDriversByMeetingAsync(String meetingKey);
+}
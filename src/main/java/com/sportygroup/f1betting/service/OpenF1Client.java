@@ -2,8 +2,16 @@ package com.sportygroup.f1betting.service;
 
 import com.sportygroup.f1betting.model.Driver;
 import com.sportygroup.f1betting.model.Session;
+import java.util.Map;
 
 public interface OpenF1Client {
   Session[] fetchSessions(String sessionType, String year, String country);
   Driver[]  fetchDriversBySession(String sessionKey);
+
+  /**
+   * Fetches the drivers of every session of a meeting in one upstream call.
+   *
+   * @return driver lists keyed by {@code session_key}
+   */
+  Map<String, Driver[]> fetchDriversByMeeting(String meetingKey);
 }
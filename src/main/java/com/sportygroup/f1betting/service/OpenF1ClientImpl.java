@@ -2,15 +2,21 @@ package com.sportygroup.f1betting.service;
 
 import com.sportygroup.f1betting.model.Driver;
 import com.sportygroup.f1betting.model.Session;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class OpenF1ClientImpl implements OpenF1Client{
@@ -19,9 +25,8 @@ public class OpenF1ClientImpl implements OpenF1Client{
   private String apiUrl;
 
   private final RestTemplate restTemplate;
+  private final OpenF1RequestScheduler scheduler;
 
-  @RateLimiter(name = "openf1")
-  @Retry(name = "openf1", fallbackMethod = "sessionsFallback")
   public Session[] fetchSessions(String sessionType, String year, String country) {
     String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
         .path("/sessions")
@@ -30,29 +35,48 @@ public class OpenF1ClientImpl implements OpenF1Client{
         .queryParamIfPresent("country_name", Optional.ofNullable(country))
         .toUriString();
 
-    var resp = restTemplate.getForEntity(url, Session[].class);
-    return Optional.ofNullable(resp.getBody()).orElseGet(() -> new Session[0]);
+    return fetch("sessions", url, Session[].class, new Session[0]);
   }
 
-  @RateLimiter(name = "openf1")
-  @Retry(name = "openf1", fallbackMethod = "driversFallback")
   public Driver[] fetchDriversBySession(String sessionKey) {
     String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
         .path("/drivers")
         .queryParam("session_key", sessionKey)
         .toUriString();
 
-    var resp = restTemplate.getForEntity(url, Driver[].class);
-    return Optional.ofNullable(resp.getBody()).orElseGet(() -> new Driver[0]);
+    return fetch("drivers", url, Driver[].class, new Driver[0]);
   }
 
-  @SuppressWarnings("unused")
-  private Session[] sessionsFallback(String sessionType, String year, String country, Throwable t) {
-    return new Session[0];
+  public Map<String, Driver[]> fetchDriversByMeeting(String meetingKey) {
+    String url = UriComponentsBuilder.fromHttpUrl(apiUrl)
+        .path("/drivers")
+        .queryParam("meeting_key", meetingKey)
+        .toUriString();
+
+    return groupBySession(fetch("meeting-drivers", url, Driver[].class, new Driver[0]));
+  }
+
+  /**
+   * Waits for the scheduler to send the request. A request that still fails after the
+   * scheduler's retries, or waits longer than its {@code maxWait}, yields {@code empty}.
+   */
+  private <T> T fetch(String endpoint, String url, Class<T> type, T empty) {
+    try {
+      return scheduler.submit(endpoint, url,
+          () -> Optional.ofNullable(restTemplate.getForEntity(url, type).getBody()).orElse(empty)).join();
+    } catch (CompletionException | CancellationException e) {
+      log.debug("OpenF1 call {} failed, returning empty result", url, e);
+      return empty;
+    }
   }
 
-  @SuppressWarnings("unused")
-  private Driver[] driversFallback(String sessionKey, Throwable t) {
-    return new Driver[0];
+  static Map<String, Driver[]> groupBySession(Driver[] drivers) {
+    return Arrays.stream(drivers)
+        .filter(d -> d.session_key() != null)
+        .collect(Collectors.groupingBy(
+            Driver::session_key,
+            LinkedHashMap::new,
+            Collectors.collectingAndThen(Collectors.toList(), list -> list.toArray(new Driver[0]))
+        ));
   }
 }
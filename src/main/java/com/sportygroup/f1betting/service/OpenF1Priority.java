@@ -0,0 +1,34 @@
+package com.sportygroup.f1betting.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of OpenF1 requests in the {@link OpenF1RequestScheduler}. Requests are
+ * {@link #INTERACTIVE} unless the calling thread runs them through {@link #call} with another
+ * priority, as cache refreshes do with {@link #BACKGROUND}.
+ */
+public enum OpenF1Priority {
+  /** Someone is waiting for the response. */
+  INTERACTIVE,
+  /** Refreshes and warm-up that can wait for a free slot. */
+  BACKGROUND;
+
+  private static final ThreadLocal<OpenF1Priority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+  public static OpenF1Priority current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Runs {@code work} with this priority for the OpenF1 requests it submits on this thread.
+   */
+  public <T> T call(Supplier<T> work) {
+    var previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return work.get();
+    } finally {
+      CURRENT.set(previous);
+    }
+  }
+}
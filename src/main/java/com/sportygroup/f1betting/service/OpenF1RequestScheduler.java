@@ -0,0 +1,348 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.config.OpenF1HttpProperties;
+import com.sportygroup.f1betting.config.OpenF1SchedulerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Sends every OpenF1 request, from the blocking and the async client alike, at the rate the API
+ * currently accepts. Requests wait in one queue per {@link OpenF1Priority}, and interactive ones
+ * always go first. A request for a key that is already queued or in flight joins that request
+ * instead of taking another slot.
+ * <p>
+ * The rate adapts to the API, see {@link OpenF1SchedulerProperties}: a 429 response halves it,
+ * pauses dispatching for {@code Retry-After} and puts the request back at the head of its queue,
+ * while successful responses raise it again step by step.
+ */
+@Slf4j
+@Component
+public class OpenF1RequestScheduler {
+
+  private final OpenF1SchedulerProperties properties;
+  private final ScheduledExecutorService dispatcher =
+      Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("openf1-dispatch-"));
+  private final ExecutorService callThreads;
+
+  // guarded by this
+  private final Map<OpenF1Priority, Deque<Request>> queues = new EnumMap<>(OpenF1Priority.class);
+  private final Map<String, Request> requestsByKey = new HashMap<>();
+  private double rate;
+  private long nextPermitAt;
+  private long pausedUntil;
+  private boolean dispatchScheduled;
+
+  private final MeterRegistry meterRegistry;
+  private final Map<OpenF1Priority, Timer> waitTimers = new EnumMap<>(OpenF1Priority.class);
+  private final Counter coalesced;
+  private final Counter throttled;
+  private final Counter expired;
+
+  /**
+   * Blocking calls run on enough threads for every call the rate lets start while earlier ones
+   * may still be waiting for their response, see {@link #callThreads}, so a call never queues
+   * for a thread after its permit. They are virtual threads with
+   * {@code spring.threads.virtual.enabled}, like the OpenF1 executor's workers.
+   */
+  public OpenF1RequestScheduler(
+      OpenF1SchedulerProperties properties,
+      OpenF1HttpProperties httpProperties,
+      MeterRegistry meterRegistry,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    var threadFactory = virtualThreads
+        ? Thread.ofVirtual().name("openf1-call-", 1).factory()
+        : new CustomizableThreadFactory("openf1-call-");
+    this.callThreads = Executors.newFixedThreadPool(callThreads(properties.maxRate(), httpProperties), threadFactory);
+    this.rate = properties.maxRate();
+    this.nextPermitAt = System.nanoTime();
+    this.pausedUntil = nextPermitAt;
+    for (var priority : OpenF1Priority.values()) {
+      String tag = priority.name().toLowerCase();
+      queues.put(priority, new ArrayDeque<>());
+      waitTimers.put(priority, Timer.builder("openf1.scheduler.wait").tag("priority", tag).register(meterRegistry));
+      Gauge.builder("openf1.scheduler.queue", this, scheduler -> scheduler.queued(priority))
+          .tag("priority", tag)
+          .register(meterRegistry);
+    }
+    Gauge.builder("openf1.scheduler.rate", this, OpenF1RequestScheduler::rate).register(meterRegistry);
+    this.coalesced = meterRegistry.counter("openf1.scheduler.coalesced");
+    this.throttled = meterRegistry.counter("openf1.scheduler.throttled");
+    this.expired = meterRegistry.counter("openf1.scheduler.expired");
+  }
+
+  /**
+   * Calls that can be running at once: {@code maxRate} start per second, and each one ends
+   * within the time it may wait for a pooled connection, to connect and for the response.
+   */
+  static int callThreads(double maxRate, OpenF1HttpProperties http) {
+    var longestCall = http.connectionRequestTimeout().plus(http.connectTimeout()).plus(http.responseTimeout());
+    return Math.max(1, (int) Math.ceil(maxRate * longestCall.toMillis() / 1000.0));
+  }
+
+  /**
+   * Runs the blocking {@code call} on the scheduler's call threads once the request's turn comes.
+   */
+  public <T> CompletableFuture<T> submit(String endpoint, String key, Supplier<T> call) {
+    return submitAsync(endpoint, key, () -> CompletableFuture.supplyAsync(call, callThreads));
+  }
+
+  /**
+   * Starts {@code call} once the request's turn comes, with the calling thread's
+   * {@link OpenF1Priority}. The future fails with the last failure of the call, or with a
+   * {@link TimeoutException} if the request waited longer than {@code maxWait} for its turn.
+   *
+   * @param endpoint tag for the request metrics
+   * @param key identifies the response, typically the URL, so equal requests can share it
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<T> submitAsync(String endpoint, String key, Supplier<CompletableFuture<T>> call) {
+    var priority = OpenF1Priority.current();
+    CompletableFuture<Object> result;
+    synchronized (this) {
+      var request = requestsByKey.get(key);
+      if (request != null) {
+        coalesced.increment();
+        if (request.queued && priority.compareTo(request.priority) < 0) {
+          queues.get(request.priority).remove(request);
+          request.priority = priority;
+          queues.get(priority).addLast(request);
+        }
+      } else {
+        request = new Request(endpoint, key, priority, (Supplier<CompletableFuture<?>>) (Supplier<?>) call);
+        requestsByKey.put(key, request);
+        enqueue(request, false);
+      }
+      result = request.result;
+    }
+    return (CompletableFuture<T>) result.copy();
+  }
+
+  private synchronized int queued(OpenF1Priority priority) {
+    return queues.get(priority).size();
+  }
+
+  private synchronized double rate() {
+    return rate;
+  }
+
+  // guarded by this
+  private void enqueue(Request request, boolean first) {
+    request.queued = true;
+    request.enqueuedAt = System.nanoTime();
+    if (first) {
+      queues.get(request.priority).addFirst(request);
+    } else {
+      queues.get(request.priority).addLast(request);
+    }
+    scheduleDispatch(0);
+  }
+
+  // guarded by this
+  private void scheduleDispatch(long delayNanos) {
+    if (!dispatchScheduled) {
+      dispatchScheduled = true;
+      dispatcher.schedule(this::dispatch, delayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Starts the next request if a permit is available, and schedules itself again for when the
+   * next one will be.
+   */
+  private void dispatch() {
+    var timedOut = new ArrayList<Request>();
+    Request next = null;
+    long now = System.nanoTime();
+    synchronized (this) {
+      dispatchScheduled = false;
+      if (Math.max(nextPermitAt, pausedUntil) - now <= 0) {
+        next = poll(now, timedOut);
+        if (next != null) {
+          nextPermitAt = now + (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        }
+      }
+      if (queues.values().stream().anyMatch(queue -> !queue.isEmpty())) {
+        scheduleDispatch(Math.max(0, Math.max(nextPermitAt, pausedUntil) - now));
+      }
+    }
+    for (var request : timedOut) {
+      expired.increment();
+      request.result.completeExceptionally(new TimeoutException(
+          "Waited longer than " + properties.maxWait() + " to call OpenF1: " + request.key));
+    }
+    if (next != null) {
+      waitTimers.get(next.priority).record(now - next.enqueuedAt, TimeUnit.NANOSECONDS);
+      start(next);
+    }
+  }
+
+  // guarded by this
+  private Request poll(long now, List<Request> timedOut) {
+    long maxWait = properties.maxWait().toNanos();
+    while (true) {
+      var request = queues.get(OpenF1Priority.INTERACTIVE).pollFirst();
+      if (request == null) {
+        request = queues.get(OpenF1Priority.BACKGROUND).pollFirst();
+      }
+      if (request == null) {
+        return null;
+      }
+      request.queued = false;
+      if (now - request.submittedAt <= maxWait) {
+        return request;
+      }
+      requestsByKey.remove(request.key, request);
+      timedOut.add(request);
+    }
+  }
+
+  private void start(Request request) {
+    request.attempts++;
+    long startedAt = System.nanoTime();
+    CompletableFuture<?> attempt;
+    try {
+      attempt = request.call.get();
+    } catch (RuntimeException e) {
+      attempt = CompletableFuture.failedFuture(e);
+    }
+    attempt.whenComplete((value, failure) -> completed(request, startedAt, value, unwrap(failure)));
+  }
+
+  private void completed(Request request, long startedAt, Object value, Throwable failure) {
+    var retryAfter = tooManyRequests(failure);
+    String outcome = failure == null ? "success" : retryAfter.isPresent() ? "throttled" : "error";
+    Timer.builder("openf1.requests")
+        .tag("endpoint", request.endpoint)
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+    boolean retry = false;
+    synchronized (this) {
+      if (retryAfter.isPresent()) {
+        throttle(retryAfter.get());
+        retry = request.attempts < properties.maxAttempts();
+      } else if (failure == null) {
+        rate = Math.min(properties.maxRate(), rate + properties.rateIncrease());
+      }
+      if (retry) {
+        enqueue(request, true);
+      } else {
+        requestsByKey.remove(request.key, request);
+      }
+    }
+    if (retry) {
+      return;
+    }
+    if (failure != null) {
+      request.result.completeExceptionally(failure);
+    } else {
+      request.result.complete(value);
+    }
+  }
+
+  // guarded by this
+  private void throttle(Duration retryAfter) {
+    throttled.increment();
+    pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfter.toNanos());
+    rate = Math.max(properties.minRate(), rate * properties.backoffFactor());
+    log.info("OpenF1 answered 429, pausing for {} and slowing down to {} requests/s", retryAfter,
+        String.format("%.2f", rate));
+  }
+
+  private Optional<Duration> tooManyRequests(Throwable failure) {
+    if (!(failure instanceof HttpClientErrorException.TooManyRequests e)) {
+      return Optional.empty();
+    }
+    var headers = e.getResponseHeaders();
+    String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+    return Optional.of(parseRetryAfter(value, properties.defaultRetryAfter(), Instant.now()));
+  }
+
+  /**
+   * Reads a {@code Retry-After} value given as seconds or as an HTTP date.
+   */
+  static Duration parseRetryAfter(String value, Duration fallback, Instant now) {
+    if (value == null || value.isBlank()) {
+      return fallback;
+    }
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      // not seconds, try a date
+    }
+    try {
+      var until = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+      return until.isAfter(now) ? Duration.between(now, until) : Duration.ZERO;
+    } catch (DateTimeParseException e) {
+      return fallback;
+    }
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    while ((failure instanceof CompletionException || failure instanceof ExecutionException)
+        && failure.getCause() != null) {
+      failure = failure.getCause();
+    }
+    return failure;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    callThreads.shutdownNow();
+  }
+
+  private static final class Request {
+    final String endpoint;
+    final String key;
+    final Supplier<CompletableFuture<?>> call;
+    final CompletableFuture<Object> result = new CompletableFuture<>();
+    final long submittedAt = System.nanoTime();
+    OpenF1Priority priority;
+    long enqueuedAt;
+    boolean queued;
+    int attempts;
+
+    Request(String endpoint, String key, OpenF1Priority priority, Supplier<CompletableFuture<?>> call) {
+      this.endpoint = endpoint;
+      this.key = key;
+      this.priority = priority;
+      this.call = call;
+    }
+  }
+}
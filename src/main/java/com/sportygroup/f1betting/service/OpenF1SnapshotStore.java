@@ -0,0 +1,159 @@
+package com.sportygroup.f1betting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sportygroup.f1betting.config.OpenF1SnapshotProperties;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import com.sportygroup.f1betting.model.SessionQuery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * File-backed snapshot of OpenF1 reference data. Session lists are stored with the time they
+ * were fetched so they can be revalidated after a restart; driver lists (per session and per
+ * meeting) are only stored for finished sessions, which never change, so they are served
+ * without going upstream again. Each map holds at most {@code maxEntries} entries and evicts
+ * the least used ones beyond that, so arbitrary session queries cannot grow the store without
+ * limit.
+ */
+@Slf4j
+@Component
+public class OpenF1SnapshotStore {
+
+  private final OpenF1SnapshotProperties properties;
+  private final ObjectMapper objectMapper;
+
+  private final Map<SessionQuery, SessionsEntry> sessions;
+  private final Map<String, Driver[]> drivers;
+  private final Map<String, Map<String, Driver[]>> meetingDrivers;
+  private final AtomicBoolean dirty = new AtomicBoolean();
+
+  public OpenF1SnapshotStore(OpenF1SnapshotProperties properties, ObjectMapper objectMapper) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.sessions = boundedMap(properties.maxEntries());
+    this.drivers = boundedMap(properties.maxEntries());
+    this.meetingDrivers = boundedMap(properties.maxEntries());
+  }
+
+  public Optional<SessionsEntry> findSessions(SessionQuery query) {
+    return Optional.ofNullable(sessions.get(query));
+  }
+
+  public Optional<Driver[]> findDrivers(String sessionKey) {
+    return Optional.ofNullable(sessionKey).map(drivers::get);
+  }
+
+  public Optional<Map<String, Driver[]>> findMeetingDrivers(String meetingKey) {
+    return Optional.ofNullable(meetingKey).map(meetingDrivers::get);
+  }
+
+  public void saveSessions(SessionQuery query, Session[] result, Instant fetchedAt) {
+    sessions.put(query, new SessionsEntry(query, result, fetchedAt));
+    dirty.set(true);
+  }
+
+  public void saveDrivers(String sessionKey, Driver[] result) {
+    drivers.put(sessionKey, result);
+    dirty.set(true);
+  }
+
+  public void saveMeetingDrivers(String meetingKey, Map<String, Driver[]> result) {
+    meetingDrivers.put(meetingKey, Map.copyOf(result));
+    dirty.set(true);
+  }
+
+  @PostConstruct
+  public void load() {
+    var path = properties.path();
+    if (!properties.enabled() || !Files.isRegularFile(path)) {
+      return;
+    }
+    try {
+      var document = objectMapper.readValue(path.toFile(), SnapshotDocument.class);
+      Optional.ofNullable(document.sessions()).orElse(List.of())
+          .forEach(entry -> sessions.put(entry.query(), entry));
+      Optional.ofNullable(document.drivers()).ifPresent(drivers::putAll);
+      Optional.ofNullable(document.meetingDrivers()).ifPresent(meetingDrivers::putAll);
+      log.info("Loaded OpenF1 snapshot from {}: {} session queries, {} driver lists, {} meetings",
+          path, sessions.size(), drivers.size(), meetingDrivers.size());
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable OpenF1 snapshot {}", path, e);
+    }
+  }
+
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${event.api.snapshot.flush-interval:PT30S}")
+  public void flush() {
+    if (!properties.enabled() || !dirty.getAndSet(false)) {
+      return;
+    }
+    var target = properties.path().toAbsolutePath();
+    Path tmp = null;
+    try {
+      Files.createDirectories(target.getParent());
+      tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+      objectMapper.writeValue(tmp.toFile(), new SnapshotDocument(
+          List.copyOf(sessions.values()), Map.copyOf(drivers), Map.copyOf(meetingDrivers)));
+      replace(tmp, target);
+    } catch (IOException e) {
+      dirty.set(true);
+      log.warn("Failed to write OpenF1 snapshot {}", target, e);
+    } finally {
+      deleteQuietly(tmp);
+    }
+  }
+
+  /**
+   * Renames atomically where the filesystem supports it, so a crash never leaves a half-written
+   * snapshot; elsewhere a plain replace is the best we can do.
+   */
+  private static void replace(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void deleteQuietly(Path tmp) {
+    if (tmp == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(tmp);
+    } catch (IOException e) {
+      log.warn("Failed to delete temporary OpenF1 snapshot {}", tmp, e);
+    }
+  }
+
+  private static <K, V> Map<K, V> boundedMap(int maxEntries) {
+    return Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .executor(Runnable::run)
+        .<K, V>build()
+        .asMap();
+  }
+
+  public record SessionsEntry(SessionQuery query, Session[] sessions, Instant fetchedAt) {}
+
+  public record SnapshotDocument(
+      List<SessionsEntry> sessions,
+      Map<String, Driver[]> drivers,
+      Map<String, Map<String, Driver[]>> meetingDrivers
+  ) {}
+}
@@ -0,0 +1,74 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import com.sportygroup.f1betting.model.SettlementJob;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs chunked settlements on the settlement worker pool. The job is the event's
+ * {@link com.sportygroup.f1betting.entity.SettlementCheckpoint}, so its state survives restarts:
+ * settlements still in progress when the application stopped are picked up again on startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementJobService {
+
+  private final ChunkedSettlementService chunkedSettlementService;
+  private final SettlementCheckpointRepository checkpointRepository;
+
+  @Qualifier("settlementExecutor")
+  private final ExecutorService settlementExecutor;
+
+  private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Records the winner synchronously, so conflicting outcomes are still rejected on the request,
+   * and settles the bets in the background.
+   */
+  public SettlementJob submit(Long eventId, Long winnerDriverId) {
+    var checkpoint = chunkedSettlementService.begin(eventId, winnerDriverId);
+    if (checkpoint.getStatus() == SettlementStatus.IN_PROGRESS) {
+      schedule(eventId, winnerDriverId);
+    }
+    return new SettlementJob(checkpoint.getJobId(), eventId, winnerDriverId, checkpoint.getStatus());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeInterrupted() {
+    var interrupted = checkpointRepository.findByStatus(SettlementStatus.IN_PROGRESS);
+    if (!interrupted.isEmpty()) {
+      log.info("Resuming {} interrupted settlements", interrupted.size());
+    }
+    interrupted.forEach(c -> schedule(c.getEventId(), c.getWinnerDriverId()));
+  }
+
+  private void schedule(Long eventId, Long winnerDriverId) {
+    if (!running.add(eventId)) {
+      log.debug("Settlement of event {} is already running", eventId);
+      return;
+    }
+    settlementExecutor.execute(() -> {
+      try {
+        chunkedSettlementService.settle(eventId, winnerDriverId);
+      } catch (OptimisticLockingFailureException e) {
+        log.info("Settlement of event {} is being advanced by another runner", eventId);
+      } catch (RuntimeException e) {
+        log.error("Settlement of event {} failed", eventId, e);
+        chunkedSettlementService.markFailed(eventId, e);
+      } finally {
+        running.remove(eventId);
+      }
+    });
+  }
+}
@@ -0,0 +1,45 @@
+package com.sportygroup.f1betting.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller starts the work and everyone
+ * who asks for that key before it completes gets the same result. Nothing is kept once the work
+ * completes; caching is left to the caller.
+ */
+final class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * @return a future of the shared result; callers get their own copy, so cancelling or
+   *     completing it does not affect the others
+   */
+  CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> work) {
+    var flight = new CompletableFuture<V>();
+    var existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      return existing.copy();
+    }
+    start(work).whenComplete((value, failure) -> {
+      inFlight.remove(key, flight);
+      if (failure != null) {
+        flight.completeExceptionally(failure);
+      } else {
+        flight.complete(value);
+      }
+    });
+    return flight.copy();
+  }
+
+  private static <V> CompletableFuture<V> start(Supplier<CompletableFuture<V>> work) {
+    try {
+      return work.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -2,9 +2,10 @@ package com.sportygroup.f1betting.service;
 
 import com.sportygroup.f1betting.entity.User;
 import com.sportygroup.f1betting.exceptions.OutOfBalanceException;
-import com.sportygroup.f1betting.exceptions.UserNotFoundException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
 import com.sportygroup.f1betting.model.PlaceBetRequest;
 import com.sportygroup.f1betting.repository.UserRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -15,16 +16,28 @@ import org.springframework.stereotype.Service;
 public class UserService {
 
   private final UserRepository userRepository;
+  private final WalletLedger walletLedger;
 
 
-  public User checkUserBalance(PlaceBetRequest req) {
-    var user = userRepository.findById(req.userId())
-        .orElseThrow(() -> new UserNotFoundException("User with id: %s not found".formatted(req.userId())));
-
-    if (user.getBalance() < req.amount()) {
+  /**
+   * Debits the stake from the user's wallet; no database access once the wallet is loaded.
+   */
+  public void reserveStake(PlaceBetRequest req) {
+    if (!walletLedger.tryReserve(req.userId(), req.amountMinor())) {
       throw new OutOfBalanceException("Insufficient funds for this bet");
     }
-    return user;
+  }
+
+  /**
+   * Undoes {@link #reserveStake} for a bet that was not placed after all, once the current
+   * transaction commits.
+   */
+  public void releaseStake(PlaceBetRequest req) {
+    walletLedger.releaseAfterCommit(req.userId(), req.amountMinor());
+  }
+
+  public List<Long> findExistingIds(Collection<Long> userIds) {
+    return userRepository.findExistingIds(userIds);
   }
 
   public List<User> findAllById(Set<Long> userIds) {
@@ -35,4 +48,12 @@ public class UserService {
     userRepository.saveAll(users);
   }
 
+  /**
+   * Credits settlement payouts in the current transaction and in the wallets once it commits.
+   */
+  public void creditBalances(BalanceDeltas payouts) {
+    userRepository.addToBalances(payouts);
+    walletLedger.applyAfterCommit(payouts);
+  }
+
 }
@@ -0,0 +1,282 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.exceptions.UserNotFoundException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory view of user balances in minor units. Stakes are reserved with a compare-and-set
+ * on the user's balance, so concurrent bets can never overcommit a wallet and placing a bet
+ * does not read {@code users}. Reservations are written to {@code users} in batches by
+ * {@link #flush()}; settlement credits are written by the settlement transaction itself and
+ * only mirrored here once it commits.
+ * <p>
+ * A wallet is loaded from {@code users} the first time it is needed. A credit whose transaction
+ * has written {@code users} but not yet been mirrored would be counted twice if the load read it
+ * after the commit, so loading waits until the user has no credits in flight and starts over if
+ * one was written while it was reading. {@link #rebuild()} skips such users; they are loaded
+ * on first use instead.
+ * <p>
+ * The ledger assumes it is the only one debiting balances, i.e. a single application instance.
+ * Debits not yet flushed when the process dies are lost, bounded by {@code wallet.flush-interval}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletLedger {
+
+  private final UserRepository userRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<Long, Wallet> wallets = new ConcurrentHashMap<>();
+
+  // guarded by this: users with credits in flight, or credited while a load was reading
+  private final Map<Long, Credits> credits = new HashMap<>();
+  private long creditSequence;
+  private int loads;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long start = startLoad();
+    try {
+      var users = userRepository.findAll();
+      synchronized (this) {
+        users.stream()
+            .filter(user -> !creditedSince(user.getId(), start))
+            .forEach(user -> wallets.putIfAbsent(user.getId(), new Wallet(user.getBalance())));
+      }
+    } finally {
+      endLoad();
+    }
+    log.info("Loaded {} wallets", wallets.size());
+  }
+
+  /**
+   * Takes {@code amount} from the user's balance if it covers it. Inside a transaction the
+   * reservation is given back if that transaction rolls back.
+   *
+   * @return {@code false} if the balance is too low
+   * @throws UserNotFoundException if the user does not exist
+   */
+  public boolean tryReserve(long userId, long amount) {
+    var wallet = wallet(userId);
+    long current;
+    do {
+      current = wallet.balance.get();
+      if (current < amount) {
+        return false;
+      }
+    } while (!wallet.balance.compareAndSet(current, current - amount));
+    wallet.unflushed.addAndGet(-amount);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            release(wallet, amount);
+          }
+        }
+      });
+    }
+    return true;
+  }
+
+  /**
+   * Gives back a reservation of the current transaction that was not used, once that
+   * transaction commits. On rollback {@link #tryReserve} already gives it back.
+   */
+  public void releaseAfterCommit(long userId, long amount) {
+    var wallet = wallet(userId);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      release(wallet, amount);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        release(wallet, amount);
+      }
+    });
+  }
+
+  /**
+   * Mirrors balance changes that the current transaction writes to {@code users} directly,
+   * once it has committed.
+   */
+  public void applyAfterCommit(BalanceDeltas deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    startCredit(deltas);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      endCredit(deltas, true);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        endCredit(deltas, true);
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          endCredit(deltas, false);
+        }
+      }
+    });
+  }
+
+  public long balance(long userId) {
+    return wallet(userId).balance.get();
+  }
+
+  /**
+   * Writes reservations made since the last flush to {@code users} in one batch. On failure
+   * they are kept and retried on the next run.
+   */
+  @PreDestroy
+  @Scheduled(fixedDelayString = "${wallet.flush-interval:PT1S}")
+  public void flush() {
+    var pending = new BalanceDeltas(wallets.size());
+    wallets.forEach((userId, wallet) -> {
+      long delta = wallet.unflushed.getAndSet(0);
+      if (delta != 0) {
+        pending.add(userId, delta);
+      }
+    });
+    if (pending.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> userRepository.addToBalances(pending));
+    } catch (RuntimeException e) {
+      pending.forEach((userId, delta) -> wallets.get(userId).unflushed.addAndGet(delta));
+      log.warn("Failed to flush {} wallet balances, will retry", pending.size(), e);
+    }
+  }
+
+  private synchronized void startCredit(BalanceDeltas deltas) {
+    long sequence = ++creditSequence;
+    deltas.forEach((userId, delta) -> {
+      var userCredits = credits.computeIfAbsent(userId, id -> new Credits());
+      userCredits.inFlight++;
+      userCredits.lastSequence = sequence;
+    });
+  }
+
+  /**
+   * Mirrors a committed credit into the wallets already loaded; a wallet loaded later reads it
+   * from {@code users}.
+   */
+  private synchronized void endCredit(BalanceDeltas deltas, boolean committed) {
+    deltas.forEach((userId, delta) -> {
+      if (committed) {
+        var wallet = wallets.get(userId);
+        if (wallet != null) {
+          wallet.balance.addAndGet(delta);
+        }
+      }
+      var userCredits = credits.get(userId);
+      if (--userCredits.inFlight == 0 && loads == 0) {
+        credits.remove(userId);
+      }
+    });
+    notifyAll();
+  }
+
+  private void release(Wallet wallet, long amount) {
+    wallet.balance.addAndGet(amount);
+    wallet.unflushed.addAndGet(amount);
+  }
+
+  private Wallet wallet(long userId) {
+    var wallet = wallets.get(userId);
+    return wallet != null ? wallet : load(userId);
+  }
+
+  private Wallet load(long userId) {
+    while (true) {
+      long start = startLoad(userId);
+      try {
+        var user = userRepository.findById(userId);
+        synchronized (this) {
+          if (!creditedSince(userId, start)) {
+            long balance = user
+                .orElseThrow(() -> new UserNotFoundException("User with id: %s not found".formatted(userId)))
+                .getBalance();
+            return wallets.computeIfAbsent(userId, id -> new Wallet(balance));
+          }
+        }
+      } finally {
+        endLoad();
+      }
+    }
+  }
+
+  private synchronized long startLoad() {
+    loads++;
+    return creditSequence;
+  }
+
+  /**
+   * Waits until no credit of the user is in flight, so the load cannot read one of them.
+   */
+  private synchronized long startLoad(long userId) {
+    while (credits.containsKey(userId) && credits.get(userId).inFlight > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while loading the wallet of user " + userId, e);
+      }
+    }
+    return startLoad();
+  }
+
+  private synchronized void endLoad() {
+    if (--loads == 0) {
+      credits.values().removeIf(userCredits -> userCredits.inFlight == 0);
+    }
+  }
+
+  /**
+   * Whether a load that started at {@code start} may have read a credit it cannot tell apart.
+   */
+  private synchronized boolean creditedSince(long userId, long start) {
+    var userCredits = credits.get(userId);
+    return userCredits != null && (userCredits.inFlight > 0 || userCredits.lastSequence > start);
+  }
+
+  private static final class Credits {
+    private int inFlight;
+    private long lastSequence;
+  }
+
+  /**
+   * {@code unflushed} is the part of {@code balance} not yet written to {@code users}.
+   */
+  private static final class Wallet {
+    private final AtomicLong balance;
+    private final AtomicLong unflushed = new AtomicLong();
+
+    private Wallet(long balance) {
+      this.balance = new AtomicLong(balance);
+    }
+  }
+}
@@ -1,8 +1,9 @@
-INSERT INTO users (id, first_name, last_name, balance)
-VALUES (1, 'Max', 'Verstappen', 1000.00);
+-- balances are in minor units (cents)
+INSERT INTO users (id, first_name, last_name, balance, version)
+VALUES (1, 'Max', 'Verstappen', 100000, 0);
 
-INSERT INTO users (id, first_name, last_name, balance)
-VALUES (2, 'Lewis', 'Hamilton', 800.00);
+INSERT INTO users (id, first_name, last_name, balance, version)
+VALUES (2, 'Lewis', 'Hamilton', 80000, 0);
 
-INSERT INTO users (id, first_name, last_name, balance)
-VALUES (3, 'Charles', 'Leclerc', 500.00);
+INSERT INTO users (id, first_name, last_name, balance, version)
+VALUES (3, 'Charles', 'Leclerc', 50000, 0);
@@ -6,45 +6,58 @@ import com.sportygroup.f1betting.entity.BetStatus;
 import com.sportygroup.f1betting.entity.Event;
 import com.sportygroup.f1betting.entity.User;
 import com.sportygroup.f1betting.exceptions.DuplicateBetException;
+import com.sportygroup.f1betting.exceptions.EventFinishedException;
 import com.sportygroup.f1betting.exceptions.GlobalExceptionHandler;
 import com.sportygroup.f1betting.model.PlaceBetRequest;
+import com.sportygroup.f1betting.model.PlaceBetResult;
+import com.sportygroup.f1betting.service.BatchPlacementService;
 import com.sportygroup.f1betting.service.BettingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = {BetsController.class, GlobalExceptionHandler.class})
+@Import(SimpleMeterRegistry.class)
 class BetsControllerTest {
 
   @Autowired MockMvc mvc;
   @Autowired ObjectMapper objectMapper;
+  @Autowired MeterRegistry meterRegistry;
 
   @MockitoBean BettingService bettingService;
+  @MockitoBean BatchPlacementService batchPlacementService;
 
   @Test
   void place_returns201_andBetBody_onSuccess() throws Exception {
     // given
-    var req = new PlaceBetRequest(10L, 20L, 30L, 2.5, 100.0);
+    var req = new PlaceBetRequest(10L, 20L, 30L, new BigDecimal("2.5"), new BigDecimal("100"));
 
     var bet = Bet.builder()
         .id(999L)
-        .user(User.builder().id(10L).balance(500.0).build())
+        .user(User.builder().id(10L).balance(50_000L).build())
         .event(Event.builder().id(20L).build())
         .driverId(30L)
-        .odds(2.5)
-        .amount(100.0)
+        .odds(250L)
+        .amount(10_000L)
         .status(BetStatus.PENDING)
         .createdAt(Instant.now())
         .build();
@@ -57,6 +70,7 @@ class BetsControllerTest {
             .content(objectMapper.writeValueAsString(req)))
         .andExpect(status().isCreated())
         .andExpect(jsonPath("$.id", is(999)))
+        .andExpect(jsonPath("$.user", is(10)))
         .andExpect(jsonPath("$.driverId", is(30)))
         .andExpect(jsonPath("$.amount", is(100.0)))
         .andExpect(jsonPath("$.odds", is(2.5)))
@@ -76,9 +90,22 @@ class BetsControllerTest {
     verifyNoInteractions(bettingService);
   }
 
+  @Test
+  void place_returns400_whenAmountHasSubCentPrecision() throws Exception {
+    var invalidJson = """
+            {"userId":10,"eventId":20,"driverId":30,"odds":2.5,"amount":10.005}
+            """;
+
+    mvc.perform(post("/api/bets")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(invalidJson))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(bettingService);
+  }
+
   @Test
   void place_returns400_whenDuplicateBet() throws Exception {
-    var req = new PlaceBetRequest(10L, 20L, 30L, 2.0, 50.0);
+    var req = new PlaceBetRequest(10L, 20L, 30L, new BigDecimal("2"), new BigDecimal("50"));
     when(bettingService.placeBet(any())).thenThrow(
         new DuplicateBetException("User 10 has already placed a bet for event 20")
     );
@@ -89,4 +116,80 @@ class BetsControllerTest {
         .andExpect(status().isBadRequest())
         .andExpect(content().string(containsString("already placed a bet")));
   }
-}
\ No newline at end of file
+
+  @Test
+  void place_countsHandledExceptions_byTypeAndStatus() throws Exception {
+    var req = new PlaceBetRequest(10L, 20L, 30L, new BigDecimal("2"), new BigDecimal("50"));
+    when(bettingService.placeBet(any())).thenThrow(new EventFinishedException("finished"));
+    var counter = meterRegistry.counter("api.errors", "exception", "EventFinishedException", "status", "400");
+    double before = counter.count();
+
+    mvc.perform(post("/api/bets")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(req)))
+        .andExpect(status().isBadRequest());
+
+    assertThat(counter.count()).isEqualTo(before + 1);
+  }
+
+  @Test
+  void placeAll_returns201_andAllBets() throws Exception {
+    var reqs = List.of(
+        new PlaceBetRequest(10L, 20L, 30L, new BigDecimal("2"), new BigDecimal("50")),
+        new PlaceBetRequest(11L, 20L, 31L, new BigDecimal("3"), new BigDecimal("25")));
+    when(bettingService.placeBets(anyList())).thenReturn(List.of(
+        Bet.builder().id(1L).user(User.builder().id(10L).build()).event(Event.builder().id(20L).build())
+            .driverId(30L).odds(200L).amount(5_000L).status(BetStatus.PENDING).build(),
+        Bet.builder().id(2L).user(User.builder().id(11L).build()).event(Event.builder().id(20L).build())
+            .driverId(31L).odds(300L).amount(2_500L).status(BetStatus.PENDING).build()));
+
+    mvc.perform(post("/api/bets/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(reqs)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].id", is(1)))
+        .andExpect(jsonPath("$[1].user", is(11)))
+        .andExpect(jsonPath("$[1].event", is(20)))
+        .andExpect(jsonPath("$[1].amount", is(25.0)));
+  }
+
+  @Test
+  void placeAll_returns400_whenAnyRequestIsInvalid() throws Exception {
+    var invalidJson = """
+            [{"userId":10,"eventId":20,"driverId":30,"odds":2,"amount":50},
+             {"userId":11,"eventId":20,"odds":0,"amount":0}]
+            """;
+
+    mvc.perform(post("/api/bets/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(invalidJson))
+        .andExpect(status().isBadRequest());
+    verifyNoInteractions(bettingService);
+  }
+
+  @Test
+  void placeBatch_returns200_withOneResultPerSlip() throws Exception {
+    var reqs = List.of(
+        new PlaceBetRequest(10L, 20L, 30L, new BigDecimal("2"), new BigDecimal("50")),
+        new PlaceBetRequest(11L, 21L, 31L, new BigDecimal("3"), new BigDecimal("25")));
+    var bet = Bet.builder().id(1L).user(User.builder().id(10L).build()).event(Event.builder().id(20L).build())
+        .driverId(30L).odds(200L).amount(5_000L).status(BetStatus.PENDING).build();
+    when(batchPlacementService.placeBatch(anyList())).thenReturn(List.of(
+        PlaceBetResult.created(0, bet),
+        PlaceBetResult.rejected(1, new EventFinishedException("Can't place bet for already finished event (eventId=21)"))));
+
+    mvc.perform(post("/api/bets/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(reqs)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].created", is(true)))
+        .andExpect(jsonPath("$[0].bet.id", is(1)))
+        .andExpect(jsonPath("$[0].error").doesNotExist())
+        .andExpect(jsonPath("$[1].index", is(1)))
+        .andExpect(jsonPath("$[1].created", is(false)))
+        .andExpect(jsonPath("$[1].error", is("EventFinishedException")))
+        .andExpect(jsonPath("$[1].message", containsString("already finished")));
+  }
+}
@@ -1,31 +1,55 @@
 package com.sportygroup.f1betting.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.SettlementStatus;
 import com.sportygroup.f1betting.model.DriverMarket;
 import com.sportygroup.f1betting.model.EventDetails;
 import com.sportygroup.f1betting.model.EventOutcome;
 import com.sportygroup.f1betting.model.EventOutcomeRequest;
+import com.sportygroup.f1betting.model.EventStats;
+import com.sportygroup.f1betting.model.SettlementJob;
+import com.sportygroup.f1betting.model.SettlementProgress;
 import com.sportygroup.f1betting.service.BettingService;
+import com.sportygroup.f1betting.service.ChunkedSettlementService;
 import com.sportygroup.f1betting.service.EventService;
+import com.sportygroup.f1betting.service.EventStatsRegistry;
+import com.sportygroup.f1betting.service.SettlementJobService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(controllers = EventController.class)
+@Import(SimpleMeterRegistry.class)
 class EventControllerTest {
 
   @Autowired MockMvc mvc;
@@ -33,6 +57,9 @@ class EventControllerTest {
 
   @MockitoBean EventService eventService;
   @MockitoBean BettingService bettingService;
+  @MockitoBean ChunkedSettlementService chunkedSettlementService;
+  @MockitoBean SettlementJobService settlementJobService;
+  @MockitoBean EventStatsRegistry eventStats;
 
   @Test
   void list_returnsEvents_withFilters() throws Exception {
@@ -72,6 +99,37 @@ class EventControllerTest {
     verify(eventService).findEvents(null, null, null);
   }
 
+  @Test
+  void stream_writesOneJsonLinePerEvent() throws Exception {
+    var k1 = new EventDetails("k1", "Race", "2024", "Austria",
+        List.of(new DriverMarket("44", "Lewis Hamilton", 3)));
+    var k2 = new EventDetails("k2", "Race", "2024", "Austria", List.of());
+
+    doAnswer(inv -> {
+      Consumer<EventDetails> consumer = inv.getArgument(3);
+      consumer.accept(k1);
+      consumer.accept(k2);
+      return null;
+    }).when(eventService).streamEvents(eq("Race"), eq("2024"), eq("Austria"), any());
+
+    MvcResult started = mvc.perform(get("/api/events/stream")
+            .param("sessionType", "Race")
+            .param("year", "2024")
+            .param("country", "Austria"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    MvcResult result = mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andReturn();
+
+    var lines = result.getResponse().getContentAsString().lines().toList();
+    assertThat(lines).hasSize(2);
+    assertThat(objectMapper.readValue(lines.get(0), EventDetails.class)).isEqualTo(k1);
+    assertThat(objectMapper.readValue(lines.get(1), EventDetails.class)).isEqualTo(k2);
+  }
+
   @Test
   void settle_returnsOutcome_onSuccess() throws Exception {
     long eventId = 77L;
@@ -90,6 +148,89 @@ class EventControllerTest {
         .andExpect(jsonPath("$.numberOfLostBets", is(5)));
   }
 
+  @Test
+  void settle_inChunkedMode_delegatesToChunkedSettlement() throws Exception {
+    var outcome = new EventOutcome(77L, 30L, 4L, 6L);
+    when(chunkedSettlementService.settle(77L, 30L)).thenReturn(outcome);
+
+    mvc.perform(post("/api/events/{eventId}/outcome", 77L)
+            .param("mode", "CHUNKED")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new EventOutcomeRequest(30L))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.numberOfWinningBets", is(4)))
+        .andExpect(jsonPath("$.numberOfLostBets", is(6)));
+
+    verifyNoInteractions(bettingService);
+  }
+
+  @Test
+  void settlementProgress_returnsCheckpoint_or404() throws Exception {
+    var progress = new SettlementProgress("job-77", 77L, 30L, SettlementStatus.IN_PROGRESS, 500L, 10L, 90L, 400L,
+        Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:00:05Z"), null, null, null);
+    when(chunkedSettlementService.findProgress(77L)).thenReturn(Optional.of(progress));
+    when(chunkedSettlementService.findProgress(78L)).thenReturn(Optional.empty());
+
+    mvc.perform(get("/api/events/{eventId}/settlement", 77L))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status", is("IN_PROGRESS")))
+        .andExpect(jsonPath("$.lastBetId", is(500)))
+        .andExpect(jsonPath("$.remainingBets", is(400)));
+
+    mvc.perform(get("/api/events/{eventId}/settlement", 78L))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void settle_inAsyncMode_returns202WithJobLocation() throws Exception {
+    when(settlementJobService.submit(77L, 30L))
+        .thenReturn(new SettlementJob("job-77", 77L, 30L, SettlementStatus.IN_PROGRESS));
+
+    mvc.perform(post("/api/events/{eventId}/outcome", 77L)
+            .param("mode", "ASYNC")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new EventOutcomeRequest(30L))))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/api/events/settlements/job-77"))
+        .andExpect(jsonPath("$.jobId", is("job-77")))
+        .andExpect(jsonPath("$.status", is("IN_PROGRESS")));
+
+    verifyNoInteractions(bettingService, chunkedSettlementService);
+  }
+
+  @Test
+  void settlementJob_returnsOutcome_whenCompleted() throws Exception {
+    var progress = new SettlementProgress("job-77", 77L, 30L, SettlementStatus.COMPLETED, 900L, 10L, 90L, 0L,
+        Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-01-01T00:01:00Z"),
+        Instant.parse("2025-01-01T00:01:00Z"), null, new EventOutcome(77L, 30L, 10L, 90L));
+    when(chunkedSettlementService.findProgressByJobId("job-77")).thenReturn(Optional.of(progress));
+
+    mvc.perform(get("/api/events/settlements/{jobId}", "job-77"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status", is("COMPLETED")))
+        .andExpect(jsonPath("$.outcome.numberOfWinningBets", is(10)))
+        .andExpect(jsonPath("$.outcome.numberOfLostBets", is(90)));
+
+    mvc.perform(get("/api/events/settlements/{jobId}", "unknown"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void stats_returnsLiveAggregates_or404() throws Exception {
+    when(eventStats.find(20L)).thenReturn(Optional.of(new EventStats(20L, 12_550L,
+        Map.of(BetStatus.PENDING, 2L, BetStatus.WON, 0L, BetStatus.LOST, 1L),
+        Map.of(44L, 25_000L))));
+    when(eventStats.find(21L)).thenReturn(Optional.empty());
+
+    mvc.perform(get("/api/events/20/stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalStakes", is(125.5)))
+        .andExpect(jsonPath("$.betsByStatus.PENDING", is(2)))
+        .andExpect(jsonPath("$.potentialPayoutByDriver.44", is(250.0)));
+    mvc.perform(get("/api/events/21/stats"))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void settle_returns400_onInvalidBody() throws Exception {
     var invalidJson = "{}";
@@ -0,0 +1,66 @@
+package com.sportygroup.f1betting.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BalanceDeltasTest {
+
+  @Test
+  void add_accumulatesPerUser() {
+    var deltas = new BalanceDeltas(4);
+    deltas.add(7L, 500L);
+    deltas.add(9L, -200L);
+    deltas.add(7L, -100L);
+
+    assertThat(deltas.size()).isEqualTo(2);
+    assertThat(deltas.get(7L)).isEqualTo(400L);
+    assertThat(deltas.get(9L)).isEqualTo(-200L);
+    assertThat(deltas.get(8L)).isZero();
+  }
+
+  @Test
+  void userIdZero_isStoredOutsideTheTable() {
+    var deltas = new BalanceDeltas(1);
+    deltas.add(0L, 10L);
+    deltas.add(0L, 5L);
+
+    assertThat(deltas.size()).isEqualTo(1);
+    assertThat(deltas.get(0L)).isEqualTo(15L);
+    assertThat(deltas).isNotEqualTo(new BalanceDeltas(1));
+  }
+
+  @Test
+  void growsPastInitialCapacity_andMatchesBoxedAggregation() {
+    var deltas = new BalanceDeltas(2);
+    Map<Long, Long> expected = new HashMap<>();
+    var random = ThreadLocalRandom.current();
+    for (int i = 0; i < 50_000; i++) {
+      long userId = random.nextLong(1, 5_000);
+      long delta = random.nextLong(-10_000, 10_000);
+      deltas.add(userId, delta);
+      expected.merge(userId, delta, Long::sum);
+    }
+
+    Map<Long, Long> actual = new HashMap<>();
+    deltas.forEach(actual::put);
+    assertThat(deltas.size()).isEqualTo(expected.size());
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  void equality_ignoresInsertionOrderAndCapacity() {
+    var a = new BalanceDeltas(2);
+    a.add(1L, 10L);
+    a.add(2L, 20L);
+    var b = new BalanceDeltas(1_000);
+    b.add(2L, 20L);
+    b.add(1L, 10L);
+
+    assertThat(a).isEqualTo(b).hasSameHashCodeAs(b);
+  }
+}
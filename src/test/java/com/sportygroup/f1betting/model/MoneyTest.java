@@ -0,0 +1,38 @@
+package com.sportygroup.f1betting.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+  @Test
+  void toScaled_convertsDecimalsExactly() {
+    assertThat(Money.toScaled(new BigDecimal("100"))).isEqualTo(10_000L);
+    assertThat(Money.toScaled(new BigDecimal("2.5"))).isEqualTo(250L);
+    assertThat(Money.toScaled(new BigDecimal("0.10"))).isEqualTo(10L);
+    assertThat(Money.toDecimal(10L)).isEqualByComparingTo("0.10");
+  }
+
+  @Test
+  void toScaled_rejectsSubCentPrecision() {
+    assertThatThrownBy(() -> Money.toScaled(new BigDecimal("0.105")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void payout_isExact_andRoundsDownToWholeCents() {
+    // 0.10 at 3.00 is exactly 0.30, which 0.1 * 3.0 in double is not
+    assertThat(Money.payout(10L, 300L)).isEqualTo(30L);
+    // 3.33 at 1.75 = 5.8275
+    assertThat(Money.payout(333L, 175L)).isEqualTo(582L);
+  }
+
+  @Test
+  void payout_failsInsteadOfOverflowing() {
+    assertThatThrownBy(() -> Money.payout(Long.MAX_VALUE / 2, 300L))
+        .isInstanceOf(ArithmeticException.class);
+  }
+}
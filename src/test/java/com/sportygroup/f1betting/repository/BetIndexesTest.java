@@ -0,0 +1,43 @@
+package com.sportygroup.f1betting.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hot {@link BetRepository} statements are answered from the composite indexes on
+ * {@code bets} rather than a single-column index or a scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BetIndexesTest {
+
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "select count(*) from bets where event_id = 1 and status = 'PENDING'"
+          + "|IX_BET_EVENT_STATUS_ID",
+      "select id from bets where event_id = 1 and status = 'PENDING' and id > 0 order by id limit 10"
+          + "|IX_BET_EVENT_STATUS_ID",
+      "select user_id, sum(amount * odds) from bets where event_id = 1 and status = 'PENDING' and driver_id = 44 group by user_id"
+          + "|IX_BET_EVENT_STATUS_DRIVER",
+      "select id from bets where user_id = 1 and event_id = 1"
+          + "|UK_BET_USER_EVENT"
+  })
+  void hotQueries_useCompositeIndexes(String sql, String index) {
+    String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+
+    // the whole index name, so a longer index sharing its prefix does not match; H2 names the
+    // index behind a unique constraint <constraint>_INDEX_<n>
+    var usedIndex = Pattern.compile("\\b" + index + "(_INDEX_\\d+)?\\b", Pattern.CASE_INSENSITIVE);
+    assertThat(plan).containsPattern(usedIndex).doesNotContainIgnoringCase("tableScan");
+  }
+}
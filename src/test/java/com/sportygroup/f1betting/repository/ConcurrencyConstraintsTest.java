@@ -0,0 +1,142 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ConcurrencyConstraintsTest {
+
+  @Autowired TestEntityManager em;
+  @Autowired BetRepository betRepository;
+  @Autowired UserRepository userRepository;
+  @Autowired EventRepository eventRepository;
+  @Autowired PlatformTransactionManager transactionManager;
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @Test
+  void secondBetOfAUserOnAnEvent_violatesNamedUniqueConstraint() {
+    User user = em.persist(User.builder().id(200L).balance(10_000L).build());
+    Event event = em.persist(Event.builder().id(9L).build());
+    betRepository.saveAndFlush(bet(user, event));
+
+    assertThatThrownBy(() -> betRepository.saveAndFlush(bet(user, event)))
+        .isInstanceOf(DataIntegrityViolationException.class)
+        .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e).getMessage().toLowerCase())
+            .contains(Bet.USER_EVENT_CONSTRAINT));
+  }
+
+  @Test
+  void staleEventUpdate_isRejected() {
+    em.persist(Event.builder().id(10L).build());
+    em.flush();
+    em.clear();
+
+    Event first = eventRepository.findById(10L).orElseThrow();
+    em.clear();
+    eventRepository.saveAndFlush(first.toBuilder().winnerDriverId(44L).build());
+    em.clear();
+
+    assertThatThrownBy(() -> eventRepository.saveAndFlush(first.toBuilder().winnerDriverId(16L).build()))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+  }
+
+  @Test
+  void balanceBatch_bumpsUserVersion() {
+    em.persist(User.builder().id(201L).balance(10_000L).build());
+    em.flush();
+    em.clear();
+    long before = userRepository.findById(201L).orElseThrow().getVersion();
+    em.clear();
+
+    var deltas = new BalanceDeltas(1);
+    deltas.add(201L, -2_500L);
+    userRepository.addToBalances(deltas);
+
+    User after = userRepository.findById(201L).orElseThrow();
+    assertThat(after.getBalance()).isEqualTo(7_500L);
+    assertThat(after.getVersion()).isEqualTo(before + 1);
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void settlement_waitsForAPlacementHoldingTheEventLock_soNoBetStaysPending() throws Exception {
+    var tx = new TransactionTemplate(transactionManager);
+    jdbcTemplate.update("insert into users (id, first_name, last_name, balance, version) values (300, 'Lock', 'Test', 0, 0)");
+    eventRepository.insertIfAbsent(30L);
+    var locked = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    try {
+      var placement = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+        assertThat(eventRepository.lockIfOpen(30L)).isTrue();
+        assertThat(betRepository.insertIfEventOpen(bet(User.builder().id(300L).build(), Event.builder().id(30L).build())))
+            .isPresent();
+        locked.countDown();
+        await(release);
+      }));
+      assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+      var settlement = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+        assertThat(eventRepository.setWinnerIfAbsent(30L, 16L, Instant.now())).isTrue();
+        return betRepository.markWinningBets(30L, 16L) + betRepository.markLosingBets(30L, 16L);
+      }));
+      Thread.sleep(200);
+      assertThat(settlement).as("settlement waits for the placement to commit").isNotDone();
+
+      release.countDown();
+      placement.get(5, TimeUnit.SECONDS);
+      assertThat(settlement.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+      assertThat(betRepository.countByEvent_IdAndStatus(30L, BetStatus.PENDING)).isZero();
+      assertThat(betRepository.countByEvent_IdAndStatus(30L, BetStatus.LOST)).isEqualTo(1L);
+      assertThat(eventRepository.lockIfOpen(30L)).isFalse();
+    } finally {
+      release.countDown();
+      jdbcTemplate.update("delete from bets where event_id = 30");
+      jdbcTemplate.update("delete from events where id = 30");
+      jdbcTemplate.update("delete from users where id = 300");
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static Bet bet(User user, Event event) {
+    return Bet.builder()
+        .user(user)
+        .event(event)
+        .driverId(44L)
+        .amount(1_000L)
+        .odds(200L)
+        .status(BetStatus.PENDING)
+        .build();
+  }
+}
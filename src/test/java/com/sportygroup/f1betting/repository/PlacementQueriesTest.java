@@ -0,0 +1,119 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PlacementQueriesTest {
+
+  @Autowired TestEntityManager em;
+  @Autowired BetRepository betRepository;
+  @Autowired EventRepository eventRepository;
+
+  @Test
+  void insertIfAbsent_createsEventOnce() {
+    eventRepository.insertIfAbsent(30L);
+    eventRepository.insertIfAbsent(30L);
+
+    assertThat(eventRepository.count()).isEqualTo(1L);
+    assertThat(eventRepository.findById(30L)).get().extracting(Event::getVersion).isEqualTo(0L);
+  }
+
+  @Test
+  void insertIfEventOpen_insertsPendingBet() {
+    em.persist(User.builder().id(300L).balance(10_000L).build());
+    em.flush();
+    eventRepository.insertIfAbsent(31L);
+
+    var betId = betRepository.insertIfEventOpen(bet(300L, 31L));
+
+    assertThat(betId).isPresent();
+    assertThat(betRepository.countByEvent_IdAndStatus(31L, BetStatus.PENDING)).isEqualTo(1L);
+  }
+
+  @Test
+  void insertIfEventOpen_skipsSettledEvent() {
+    em.persist(User.builder().id(301L).balance(10_000L).build());
+    em.persist(Event.builder().id(32L).winnerDriverId(44L).build());
+    em.flush();
+
+    assertThat(betRepository.insertIfEventOpen(bet(301L, 32L))).isEmpty();
+    assertThat(betRepository.countByEvent_IdAndStatus(32L, BetStatus.PENDING)).isZero();
+  }
+
+  @Test
+  void insertIfEventOpen_secondBetOnEvent_violatesUniqueConstraint() {
+    em.persist(User.builder().id(302L).balance(10_000L).build());
+    em.flush();
+    eventRepository.insertIfAbsent(33L);
+    betRepository.insertIfEventOpen(bet(302L, 33L));
+
+    assertThatThrownBy(() -> betRepository.insertIfEventOpen(bet(302L, 33L)))
+        .isInstanceOf(DataIntegrityViolationException.class)
+        .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e).getMessage().toLowerCase())
+            .contains(Bet.USER_EVENT_CONSTRAINT));
+  }
+
+  @Test
+  void saveAll_andGuardedInsert_drawIdsFromTheSameSequence() {
+    em.persist(User.builder().id(303L).balance(10_000L).build());
+    em.persist(User.builder().id(304L).balance(10_000L).build());
+    em.flush();
+    eventRepository.insertAllIfAbsent(List.of(34L, 35L, 34L));
+
+    var saved = betRepository.saveAllAndFlush(List.of(
+        bet(em.find(User.class, 303L), em.find(Event.class, 34L)),
+        bet(em.find(User.class, 304L), em.find(Event.class, 35L))));
+    var inserted = betRepository.insertIfEventOpen(bet(303L, 35L));
+
+    assertThat(eventRepository.count()).isEqualTo(2L);
+    assertThat(saved).extracting(Bet::getId).doesNotContainNull().doesNotHaveDuplicates();
+    assertThat(inserted).get().isNotIn(saved.get(0).getId(), saved.get(1).getId());
+    // one id per bet: the native insert does not skip a pooled block
+    assertThat(inserted).contains(saved.get(1).getId() + 1);
+  }
+
+  @Test
+  void insertAllIfEventOpen_skipsSettledEvents_andFindKeysReadsBackTheInsertedPairs() {
+    em.persist(User.builder().id(305L).balance(10_000L).build());
+    em.persist(User.builder().id(306L).balance(10_000L).build());
+    em.persist(Event.builder().id(37L).winnerDriverId(44L).build());
+    em.flush();
+    eventRepository.insertIfAbsent(36L);
+
+    betRepository.insertAllIfEventOpen(List.of(bet(305L, 36L), bet(306L, 36L), bet(305L, 37L)));
+
+    assertThat(betRepository.findKeys(List.of(305L, 306L), List.of(36L, 37L)))
+        .extracting(key -> key.userId() + "@" + key.eventId())
+        .containsExactlyInAnyOrder("305@36", "306@36");
+  }
+
+  private static Bet bet(long userId, long eventId) {
+    return bet(User.builder().id(userId).build(), Event.builder().id(eventId).build());
+  }
+
+  private static Bet bet(User user, Event event) {
+    return Bet.builder()
+        .user(user)
+        .event(event)
+        .driverId(44L)
+        .amount(1_000L)
+        .odds(200L)
+        .status(BetStatus.PENDING)
+        .build();
+  }
+}
@@ -0,0 +1,99 @@
+package com.sportygroup.f1betting.repository;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.SettlementRow;
+import com.sportygroup.f1betting.model.UserPayout;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SettlementQueriesTest {
+
+  @Autowired TestEntityManager em;
+  @Autowired UserRepository userRepository;
+  @Autowired BetRepository betRepository;
+
+  @Test
+  void settlementStatements_onlyTouchPendingBetsOfTheEvent() {
+    // given
+    User winner = em.persist(User.builder().id(100L).balance(100_000L).build());
+    User loser = em.persist(User.builder().id(101L).balance(50_000L).build());
+    User smallWinner = em.persist(User.builder().id(102L).balance(1_000L).build());
+    Event event = em.persist(Event.builder().id(7L).build());
+    Event otherEvent = em.persist(Event.builder().id(8L).build());
+
+    em.persist(bet(winner, event, 44L, 10_000L, 300L));
+    em.persist(bet(smallWinner, event, 44L, 333L, 175L));
+    em.persist(bet(loser, event, 16L, 5_000L, 200L));
+    em.persist(bet(loser, otherEvent, 44L, 1_000L, 200L));
+    em.flush();
+    em.clear();
+
+    // when
+    var payouts = betRepository.sumPendingPayouts(7L, 44L);
+    var credits = new BalanceDeltas(payouts.size());
+    payouts.forEach(p -> credits.add(p.userId(), p.amount()));
+    userRepository.addToBalances(credits);
+    int won = betRepository.markWinningBets(7L, 44L);
+    int lost = betRepository.markLosingBets(7L, 44L);
+    em.clear();
+
+    // then
+    assertThat(payouts).containsExactlyInAnyOrder(new UserPayout(100L, 30_000L), new UserPayout(102L, 582L));
+    assertThat(won).isEqualTo(2);
+    assertThat(lost).isEqualTo(1);
+    assertThat(userRepository.findById(100L)).get().extracting(User::getBalance).isEqualTo(130_000L);
+    assertThat(userRepository.findById(102L)).get().extracting(User::getBalance).isEqualTo(1_582L);
+    assertThat(userRepository.findById(101L)).get().extracting(User::getBalance).isEqualTo(50_000L);
+    assertThat(betRepository.countByEvent_IdAndStatus(8L, BetStatus.PENDING)).isEqualTo(1L);
+    assertThat(betRepository.countByEvent_IdAndStatus(7L, BetStatus.PENDING)).isZero();
+  }
+
+  @Test
+  void lockPendingChunk_returnsPendingBetsOfTheEventAfterTheCursor_inIdOrder() {
+    User first = em.persist(User.builder().id(110L).balance(0L).build());
+    User second = em.persist(User.builder().id(111L).balance(0L).build());
+    User third = em.persist(User.builder().id(112L).balance(0L).build());
+    Event event = em.persist(Event.builder().id(17L).build());
+    Event otherEvent = em.persist(Event.builder().id(18L).build());
+
+    Bet a = em.persist(bet(first, event, 44L, 1_000L, 200L));
+    Bet b = em.persist(bet(second, event, 16L, 2_000L, 300L));
+    Bet c = em.persist(bet(third, event, 44L, 3_000L, 150L));
+    em.persist(bet(first, otherEvent, 44L, 1_000L, 200L));
+    em.flush();
+    betRepository.markBets(List.of(b.getId()), BetStatus.LOST);
+    em.clear();
+
+    var all = betRepository.lockPendingChunk(17L, 0L, 10);
+    var afterFirst = betRepository.lockPendingChunk(17L, a.getId(), 1);
+
+    assertThat(all).containsExactly(
+        new SettlementRow(a.getId(), 110L, 44L, 1_000L, 200L),
+        new SettlementRow(c.getId(), 112L, 44L, 3_000L, 150L));
+    assertThat(afterFirst).containsExactly(new SettlementRow(c.getId(), 112L, 44L, 3_000L, 150L));
+  }
+
+  private static Bet bet(User user, Event event, long driverId, long amount, long odds) {
+    return Bet.builder()
+        .user(user)
+        .event(event)
+        .driverId(driverId)
+        .amount(amount)
+        .odds(odds)
+        .status(BetStatus.PENDING)
+        .build();
+  }
+}
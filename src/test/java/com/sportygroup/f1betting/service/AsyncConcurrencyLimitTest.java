@@ -0,0 +1,56 @@
+package com.sportygroup.f1betting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncConcurrencyLimitTest {
+
+  @Test
+  void startsQueuedOperations_asEarlierOnesComplete() {
+    var limit = new AsyncConcurrencyLimit(2);
+    var started = new AtomicInteger();
+    var pending = new ArrayList<CompletableFuture<Integer>>();
+    var results = new ArrayList<CompletableFuture<Integer>>();
+
+    for (int i = 0; i < 4; i++) {
+      results.add(limit.submit(() -> {
+        started.incrementAndGet();
+        var operation = new CompletableFuture<Integer>();
+        pending.add(operation);
+        return operation;
+      }));
+    }
+    assertThat(started).hasValue(2);
+
+    pending.get(0).complete(0);
+    assertThat(started).hasValue(3);
+    assertThat(results.get(0)).isCompletedWithValue(0);
+
+    pending.get(1).completeExceptionally(new IllegalStateException("boom"));
+    assertThat(started).hasValue(4);
+    assertThat(results.get(1)).isCompletedExceptionally();
+
+    pending.get(2).complete(2);
+    pending.get(3).complete(3);
+    assertThat(results).extracting(CompletableFuture::isDone).containsOnly(true);
+  }
+
+  @Test
+  void operationThrowing_failsItsFuture_andFreesTheSlot() {
+    var limit = new AsyncConcurrencyLimit(1);
+
+    var failed = limit.submit(() -> {
+      throw new IllegalStateException("boom");
+    });
+    var next = limit.submit(() -> CompletableFuture.completedFuture("ok"));
+
+    assertThat(failed).isCompletedExceptionally();
+    assertThat(next).isCompletedWithValue("ok");
+  }
+}
@@ -0,0 +1,126 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.exceptions.OutOfBalanceException;
+import com.sportygroup.f1betting.model.BetKey;
+import com.sportygroup.f1betting.model.PlaceBetRequest;
+import com.sportygroup.f1betting.model.PlaceBetResult;
+import com.sportygroup.f1betting.repository.BetRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPlacementServiceTest {
+
+  @Mock private BetRepository betRepository;
+  @Mock private UserService userService;
+  @Mock private EventService eventService;
+  @Mock private BettingService bettingService;
+  @Mock private EventStatsRegistry eventStats;
+
+  private BatchPlacementService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new BatchPlacementService(betRepository, userService, eventService, bettingService, eventStats,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)),
+        Validation.buildDefaultValidatorFactory().getValidator());
+  }
+
+  @Test
+  void placeBatch_prevalidatesWithThreeQueries_andRejectsOnlyTheBadSlips() {
+    var ok = request(10L, 20L);
+    var invalid = new PlaceBetRequest(10L, 21L, 30L, new BigDecimal("0"), new BigDecimal("5"));
+    var unknownUser = request(99L, 20L);
+    var settledEvent = request(11L, 22L);
+    var alreadyPlaced = request(11L, 20L);
+    var repeated = request(10L, 20L);
+    when(userService.findExistingIds(Set.of(10L, 11L, 99L))).thenReturn(List.of(10L, 11L));
+    when(eventService.findSettledEventIds(Set.of(20L, 22L))).thenReturn(List.of(22L));
+    when(betRepository.findKeys(Set.of(10L, 11L, 99L), Set.of(20L, 22L)))
+        .thenReturn(List.of(new BetKey(7L, 11L, 20L)));
+    when(betRepository.findKeys(Set.of(10L), Set.of(20L)))
+        .thenReturn(List.of(new BetKey(8L, 10L, 20L)));
+
+    var results = service.placeBatch(List.of(ok, invalid, unknownUser, settledEvent, alreadyPlaced, repeated));
+
+    assertThat(results).extracting(PlaceBetResult::error).containsExactly(
+        null, "ConstraintViolationException", "UserNotFoundException", "EventFinishedException",
+        "DuplicateBetException", "DuplicateBetException");
+    assertThat(results.get(0).bet().getId()).isEqualTo(8L);
+    assertThat(results.get(0).bet().getAmount()).isEqualTo(500L);
+
+    verify(userService).reserveStake(ok);
+    verify(userService, never()).reserveStake(repeated);
+    verify(eventService).createEventsIfAbsent(Set.of(20L));
+    verify(betRepository).insertAllIfEventOpen(argThat(bets -> bets.size() == 1));
+    verify(eventStats).recordPlaced(argThat(bets -> bets.size() == 1 && bets.get(0).getId() == 8L));
+    verifyNoInteractions(bettingService);
+  }
+
+  @Test
+  void placeBatch_outOfBalanceSlip_doesNotStopTheOthers() {
+    var poor = request(10L, 20L);
+    var rich = request(11L, 20L);
+    when(userService.findExistingIds(any())).thenReturn(List.of(10L, 11L));
+    when(eventService.findSettledEventIds(any())).thenReturn(List.of());
+    when(betRepository.findKeys(any(), any()))
+        .thenReturn(List.of())
+        .thenReturn(List.of(new BetKey(9L, 11L, 20L)));
+    doThrow(new OutOfBalanceException("Insufficient funds for this bet")).when(userService).reserveStake(poor);
+
+    var results = service.placeBatch(List.of(poor, rich));
+
+    assertThat(results).extracting(PlaceBetResult::error).containsExactly("OutOfBalanceException", null);
+    verify(betRepository).insertAllIfEventOpen(argThat(bets -> bets.size() == 1
+        && bets.get(0).getUser().getId() == 11L));
+  }
+
+  @Test
+  void placeBatch_releasesStake_whenEventWasSettledBeforeTheInsert() {
+    var req = request(10L, 20L);
+    when(userService.findExistingIds(any())).thenReturn(List.of(10L));
+    when(eventService.findSettledEventIds(any())).thenReturn(List.of());
+    when(betRepository.findKeys(any(), any())).thenReturn(List.of());
+
+    var results = service.placeBatch(List.of(req));
+
+    assertThat(results).extracting(PlaceBetResult::error).containsExactly("EventFinishedException");
+    verify(userService).releaseStake(req);
+  }
+
+  @Test
+  void placeBatch_fallsBackToSinglePlacements_whenTheBatchLosesARace() {
+    var first = request(10L, 20L);
+    var second = request(11L, 20L);
+    when(userService.findExistingIds(any())).thenReturn(List.of(10L, 11L));
+    when(eventService.findSettledEventIds(any())).thenReturn(List.of());
+    when(betRepository.findKeys(any(), any())).thenReturn(List.of());
+    doThrow(new DataIntegrityViolationException("uk_bet_user_event")).when(betRepository).insertAllIfEventOpen(anyList());
+    when(bettingService.placeBet(first)).thenReturn(Bet.builder().id(1L).build());
+    when(bettingService.placeBet(second)).thenThrow(new OutOfBalanceException("Insufficient funds for this bet"));
+
+    var results = service.placeBatch(List.of(first, second));
+
+    assertThat(results).extracting(PlaceBetResult::isCreated).containsExactly(true, false);
+    assertThat(results.get(1).error()).isEqualTo("OutOfBalanceException");
+  }
+
+  private static PlaceBetRequest request(long userId, long eventId) {
+    return new PlaceBetRequest(userId, eventId, 30L, new BigDecimal("2"), new BigDecimal("5"));
+  }
+}
@@ -2,19 +2,30 @@ package com.sportygroup.f1betting.service;
 
 import com.sportygroup.f1betting.entity.Bet;
 import com.sportygroup.f1betting.entity.BetStatus;
-import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.SettlementCheckpoint;
+import com.sportygroup.f1betting.entity.SettlementStatus;
 import com.sportygroup.f1betting.entity.User;
 import com.sportygroup.f1betting.exceptions.DuplicateBetException;
 import com.sportygroup.f1betting.exceptions.EventFinishedException;
+import com.sportygroup.f1betting.exceptions.OutOfBalanceException;
+import com.sportygroup.f1betting.exceptions.SettlementConflictException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.BetKey;
 import com.sportygroup.f1betting.model.EventOutcome;
 import com.sportygroup.f1betting.model.PlaceBetRequest;
+import com.sportygroup.f1betting.model.UserPayout;
 import com.sportygroup.f1betting.repository.BetRepository;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +40,8 @@ class BettingServiceTest {
   @Mock private BetRepository betRepository;
   @Mock private UserService userService;
   @Mock private EventService eventService;
+  @Mock private EventStatsRegistry eventStats;
+  @Mock private SettlementCheckpointRepository checkpointRepository;
 
   @InjectMocks
   private BettingService bettingService;
@@ -43,176 +56,234 @@ class BettingServiceTest {
   @BeforeEach
   void setUp() {
     placeBetRequest = new PlaceBetRequest(
-        USER_ID, EVENT_ID, DRIVER_WINNER, 2.5, 100.0
+        USER_ID, EVENT_ID, DRIVER_WINNER, new BigDecimal("2.5"), new BigDecimal("100.00")
     );
+    lenient().when(eventService.lockOpenEvent(EVENT_ID)).thenReturn(true);
   }
 
   @Test
-  void placeBet_createsEventIfMissing_andSavesBet() {
+  void placeBet_reservesStake_createsEvent_andInsertsGuardedBet() {
     // given
-    when(betRepository.existsByUser_IdAndEvent_Id(USER_ID, EVENT_ID)).thenReturn(false);
-    when(eventService.findEventById(EVENT_ID)).thenReturn(Optional.empty());
-    Event newEvent = Event.builder().id(EVENT_ID).build();
-    when(eventService.saveEvent(any(Event.class))).thenReturn(newEvent);
-
-    User user = User.builder().id(USER_ID).balance(500.0).build();
-    when(userService.checkUserBalance(placeBetRequest)).thenReturn(user);
-
-
     ArgumentCaptor<Bet> betCaptor = ArgumentCaptor.forClass(Bet.class);
-    when(betRepository.save(betCaptor.capture())).thenAnswer(inv -> {
-      Bet b = betCaptor.getValue();
-      return b.toBuilder().build();
-    });
+    when(betRepository.insertIfEventOpen(betCaptor.capture())).thenReturn(Optional.of(999L));
 
     // when
     Bet saved = bettingService.placeBet(placeBetRequest);
 
     // then
-    verify(betRepository).existsByUser_IdAndEvent_Id(USER_ID, EVENT_ID);
-    verify(eventService).findEventById(EVENT_ID);
-    verify(eventService).saveEvent(argThat(e ->
-        e.getId().equals(EVENT_ID) && e.getWinnerDriverId() == null && e.getSettledAt() == null));
-
-    verify(userService).checkUserBalance(placeBetRequest);
+    InOrder inOrder = inOrder(userService, eventService, betRepository);
+    inOrder.verify(userService).reserveStake(placeBetRequest);
+    inOrder.verify(eventService).createEventIfAbsent(EVENT_ID);
+    inOrder.verify(eventService).lockOpenEvent(EVENT_ID);
+    inOrder.verify(betRepository).insertIfEventOpen(any(Bet.class));
+    verify(eventService, never()).findEventById(any());
 
     Bet toSave = betCaptor.getValue();
     assertThat(toSave.getUser().getId()).isEqualTo(USER_ID);
     assertThat(toSave.getEvent().getId()).isEqualTo(EVENT_ID);
     assertThat(toSave.getDriverId()).isEqualTo(DRIVER_WINNER);
-    assertThat(toSave.getAmount()).isEqualTo(100.0);
-    assertThat(toSave.getOdds()).isEqualTo(2.5);
+    assertThat(toSave.getAmount()).isEqualTo(10_000L);
+    assertThat(toSave.getOdds()).isEqualTo(250L);
     assertThat(toSave.getStatus()).isEqualTo(BetStatus.PENDING);
 
-    assertThat(saved).isNotNull();
+    assertThat(saved.getId()).isEqualTo(999L);
+    verify(eventStats).recordPlaced(List.of(saved));
   }
 
   @Test
-  void placeBet_throws_whenDuplicateBetExists() {
+  void placeBet_throws_whenUniqueConstraintRejectsDuplicateBet() {
     // given
-    when(betRepository.existsByUser_IdAndEvent_Id(USER_ID, EVENT_ID)).thenReturn(true);
+    when(betRepository.insertIfEventOpen(any(Bet.class))).thenThrow(new DataIntegrityViolationException(
+        "could not execute statement",
+        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_BET_USER_EVENT_INDEX_1 ON PUBLIC.BETS(USER_ID, EVENT_ID)\"")));
 
     // when / then
     assertThatThrownBy(() -> bettingService.placeBet(placeBetRequest))
         .isInstanceOf(DuplicateBetException.class)
         .hasMessageContaining("already placed a bet");
-
-    verifyNoInteractions(eventService);
-    verify(userService, never()).checkUserBalance(any());
-    verify(betRepository, never()).save(any());
   }
 
   @Test
-  void placeBet_throws_whenEventFinished_andDoesNotCheckBalance() {
-    // when
-    when(betRepository.existsByUser_IdAndEvent_Id(USER_ID, EVENT_ID)).thenReturn(false);
+  void placeBet_rethrowsOtherIntegrityViolations_soTheyCanBeRetried() {
+    var violation = new DataIntegrityViolationException(
+        "could not execute statement", new SQLException("Referential integrity constraint violation: \"FK_BET_USER\""));
+    when(betRepository.insertIfEventOpen(any(Bet.class))).thenThrow(violation);
 
+    assertThatThrownBy(() -> bettingService.placeBet(placeBetRequest)).isSameAs(violation);
+  }
 
-    Event finished = Event.builder()
-        .id(EVENT_ID)
-        .winnerDriverId(99L)
-        .settledAt(Instant.now())
-        .build();
-    when(eventService.findEventById(EVENT_ID)).thenReturn(Optional.of(finished));
+  @Test
+  void placeBet_throws_whenGuardedInsertFindsEventFinished() {
+    // given
+    when(betRepository.insertIfEventOpen(any(Bet.class))).thenReturn(Optional.empty());
 
     // when/then
     assertThatThrownBy(() -> bettingService.placeBet(placeBetRequest))
         .isInstanceOf(EventFinishedException.class)
         .hasMessageContaining("already finished event");
+  }
+
+  @Test
+  void placeBet_throws_whenEventCannotBeLockedBecauseItIsSettled() {
+    when(eventService.lockOpenEvent(EVENT_ID)).thenReturn(false);
+
+    assertThatThrownBy(() -> bettingService.placeBet(placeBetRequest))
+        .isInstanceOf(EventFinishedException.class)
+        .hasMessageContaining("already finished event");
 
-    verify(userService, never()).checkUserBalance(any());
-    verify(betRepository, never()).save(any());
+    verifyNoInteractions(betRepository, eventStats);
   }
 
   @Test
-  void settleOutcome_updatesStatuses_balances_marksEvent_andReturnsOutcome() {
-    // given: two pending bets, one wins, one loses
-    User u1 = User.builder().id(1L).balance(1000.0).build();
-    User u2 = User.builder().id(2L).balance(500.0).build();
-
-    Bet b1 = Bet.builder()
-        .id(101L).user(u1)
-        .event(Event.builder().id(EVENT_ID).build())
-        .driverId(DRIVER_WINNER).amount(100.0).odds(3.0)
-        .status(BetStatus.PENDING).createdAt(Instant.now())
-        .build();
-
-    Bet b2 = Bet.builder()
-        .id(102L).user(u2)
-        .event(Event.builder().id(EVENT_ID).build())
-        .driverId(DRIVER_LOSER).amount(50.0).odds(2.0)
-        .status(BetStatus.PENDING).createdAt(Instant.now())
-        .build();
-
-    when(betRepository.findByEvent_IdAndStatus(EVENT_ID, BetStatus.PENDING))
-        .thenReturn(List.of(b1, b2));
-
-    when(eventService.findEventById(EVENT_ID))
-        .thenReturn(Optional.of(Event.builder().id(EVENT_ID).build()));
-    when(eventService.saveEvent(any(Event.class)))
-        .thenAnswer(inv -> inv.getArgument(0));
-
-    when(userService.findAllById(Set.of(1L, 2L))).thenReturn(List.of(u1, u2));
-    ArgumentCaptor<List<User>> usersCaptor = ArgumentCaptor.forClass(List.class);
-    doNothing().when(userService).saveAll(usersCaptor.capture());
-
-    // bet statuses updated
-    ArgumentCaptor<List<Bet>> betsCaptor = ArgumentCaptor.forClass(List.class);
-    when(betRepository.saveAll(betsCaptor.capture())).thenReturn(List.of());
-
-    // outcome counts
-    when(betRepository.countByEvent_IdAndStatus(EVENT_ID, BetStatus.WON)).thenReturn(1L);
-    when(betRepository.countByEvent_IdAndStatus(EVENT_ID, BetStatus.LOST)).thenReturn(1L);
+  void placeBet_outOfBalance_doesNotTouchTheDatabase() {
+    doThrow(new OutOfBalanceException("Insufficient funds for this bet"))
+        .when(userService).reserveStake(placeBetRequest);
 
-    // when
-    EventOutcome outcome = bettingService.settleOutcome(EVENT_ID, DRIVER_WINNER);
+    assertThatThrownBy(() -> bettingService.placeBet(placeBetRequest))
+        .isInstanceOf(OutOfBalanceException.class);
 
-    // then
-    verify(eventService).saveEvent(argThat(e ->
-        e.getId().equals(EVENT_ID)
-            && e.getWinnerDriverId().equals(DRIVER_WINNER)
-            && e.getSettledAt() != null));
+    verifyNoInteractions(eventService, betRepository);
+  }
 
+  @Test
+  void placeBets_reservesAllStakes_createsEventsOnce_andInsertsInOneGuardedBatch() {
+    var second = new PlaceBetRequest(11L, EVENT_ID, DRIVER_LOSER, new BigDecimal("3"), new BigDecimal("20"));
+    var third = new PlaceBetRequest(USER_ID, 21L, DRIVER_LOSER, new BigDecimal("2"), new BigDecimal("5"));
+    when(betRepository.insertAllIfEventOpen(anyList())).thenReturn(new int[]{1, 1, 1});
+    when(betRepository.findKeys(Set.of(USER_ID, 11L), Set.of(EVENT_ID, 21L))).thenReturn(List.of(
+        new BetKey(1L, USER_ID, EVENT_ID), new BetKey(2L, 11L, EVENT_ID), new BetKey(3L, USER_ID, 21L)));
+
+    List<Bet> saved = bettingService.placeBets(List.of(placeBetRequest, second, third));
+
+    InOrder inOrder = inOrder(userService, eventService, betRepository);
+    inOrder.verify(userService).reserveStake(placeBetRequest);
+    inOrder.verify(userService).reserveStake(second);
+    inOrder.verify(userService).reserveStake(third);
+    inOrder.verify(eventService).createEventsIfAbsent(Set.of(EVENT_ID, 21L));
+    inOrder.verify(eventService).lockOpenEvents(Set.of(EVENT_ID, 21L));
+    inOrder.verify(betRepository).insertAllIfEventOpen(anyList());
+
+    assertThat(saved).extracting(Bet::getId).containsExactly(1L, 2L, 3L);
+    assertThat(saved).extracting(b -> b.getEvent().getId()).containsExactly(EVENT_ID, EVENT_ID, 21L);
+    assertThat(saved).extracting(Bet::getAmount).containsExactly(10_000L, 2_000L, 500L);
+    assertThat(saved).extracting(Bet::getStatus).containsOnly(BetStatus.PENDING);
+    verify(eventStats).recordPlaced(saved);
+  }
 
-    @SuppressWarnings("unchecked")
-    List<Bet> savedBets = betsCaptor.getValue();
-    assertThat(savedBets).hasSize(2);
-    assertThat(savedBets)
-        .anyMatch(b -> b.getId().equals(101L) && b.getStatus() == BetStatus.WON)
-        .anyMatch(b -> b.getId().equals(102L) && b.getStatus() == BetStatus.LOST);
+  @Test
+  void placeBets_throws_whenAnyBetWasNotInsertedBecauseItsEventIsFinished() {
+    var second = new PlaceBetRequest(11L, 21L, DRIVER_LOSER, new BigDecimal("3"), new BigDecimal("20"));
+    when(betRepository.insertAllIfEventOpen(anyList())).thenReturn(new int[]{1, 0});
+    when(betRepository.findKeys(any(), any())).thenReturn(List.of(new BetKey(1L, USER_ID, EVENT_ID)));
 
+    assertThatThrownBy(() -> bettingService.placeBets(List.of(placeBetRequest, second)))
+        .isInstanceOf(EventFinishedException.class)
+        .hasMessageContaining("already finished events")
+        .hasMessageContaining("[21]");
+    verifyNoInteractions(eventStats);
+  }
 
-    @SuppressWarnings("unchecked")
-    List<User> savedUsers = usersCaptor.getValue();
-    assertThat(savedUsers).hasSize(2);
-    assertThat(savedUsers)
-        .anyMatch(u -> u.getId().equals(1L) && u.getBalance() == 1300.0)
-        .anyMatch(u -> u.getId().equals(2L) && u.getBalance() == 450.0);
+  @Test
+  void placeBets_throws_beforeInserting_whenAnEventCannotBeLockedBecauseItIsSettled() {
+    var second = new PlaceBetRequest(11L, 21L, DRIVER_LOSER, new BigDecimal("3"), new BigDecimal("20"));
+    when(eventService.lockOpenEvents(Set.of(EVENT_ID, 21L))).thenReturn(Set.of(21L));
 
+    assertThatThrownBy(() -> bettingService.placeBets(List.of(placeBetRequest, second)))
+        .isInstanceOf(EventFinishedException.class)
+        .hasMessageContaining("[21]");
+    verifyNoInteractions(betRepository, eventStats);
+  }
+
+  @Test
+  void placeBets_throws_whenDriverReportsNoCounts_andABetCannotBeReadBack() {
+    when(betRepository.insertAllIfEventOpen(anyList())).thenReturn(new int[]{Statement.SUCCESS_NO_INFO});
+    when(betRepository.findKeys(any(), any())).thenReturn(List.of());
+
+    assertThatThrownBy(() -> bettingService.placeBets(List.of(placeBetRequest)))
+        .isInstanceOf(EventFinishedException.class);
+  }
+
+  @Test
+  void placeBets_throws_whenBatchViolatesUniqueConstraint() {
+    when(betRepository.insertAllIfEventOpen(anyList())).thenThrow(new DataIntegrityViolationException(
+        "could not execute batch",
+        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_BET_USER_EVENT_INDEX_1 ON PUBLIC.BETS(USER_ID, EVENT_ID)\"")));
+
+    assertThatThrownBy(() -> bettingService.placeBets(List.of(placeBetRequest)))
+        .isInstanceOf(DuplicateBetException.class);
+  }
+
+  @Test
+  void settleOutcome_recordsWinnerFirst_creditsPayoutsBeforeStatuses_andReturnsUpdateCounts() {
+    // given
+    when(eventService.recordWinner(eq(EVENT_ID), eq(DRIVER_WINNER), any())).thenReturn(DRIVER_WINNER);
+
+    when(betRepository.sumPendingPayouts(EVENT_ID, DRIVER_WINNER))
+        .thenReturn(List.of(new UserPayout(USER_ID, 25_000L)));
+    when(betRepository.markWinningBets(EVENT_ID, DRIVER_WINNER)).thenReturn(1);
+    when(betRepository.markLosingBets(EVENT_ID, DRIVER_WINNER)).thenReturn(3);
+
+    // when
+    EventOutcome outcome = bettingService.settleOutcome(EVENT_ID, DRIVER_WINNER);
+
+    // then
+    var expectedCredits = new BalanceDeltas(1);
+    expectedCredits.add(USER_ID, 25_000L);
+    InOrder inOrder = inOrder(eventService, userService, betRepository);
+    inOrder.verify(eventService).recordWinner(eq(EVENT_ID), eq(DRIVER_WINNER), notNull());
+    inOrder.verify(betRepository).sumPendingPayouts(EVENT_ID, DRIVER_WINNER);
+    inOrder.verify(userService).creditBalances(expectedCredits);
+    inOrder.verify(betRepository).markWinningBets(EVENT_ID, DRIVER_WINNER);
+    inOrder.verify(betRepository).markLosingBets(EVENT_ID, DRIVER_WINNER);
+    verify(eventStats).recordSettled(EVENT_ID, 1L, 3L);
+
+    verify(betRepository, never()).findByEvent_IdAndStatus(any(), any());
+    verify(betRepository, never()).countByEvent_IdAndStatus(any(), any());
 
     assertThat(outcome.eventId()).isEqualTo(EVENT_ID);
     assertThat(outcome.winnerId()).isEqualTo(DRIVER_WINNER);
     assertThat(outcome.numberOfWinningBets()).isEqualTo(1L);
-    assertThat(outcome.numberOfLostBets()).isEqualTo(1L);
+    assertThat(outcome.numberOfLostBets()).isEqualTo(3L);
   }
 
   @Test
-  void settleOutcome_noPendingBets_doesNothingButCounts() {
-    when(betRepository.findByEvent_IdAndStatus(EVENT_ID, BetStatus.PENDING))
-        .thenReturn(List.of());
+  void settleOutcome_noPendingBets_returnsZeroCounts() {
+    when(eventService.recordWinner(eq(EVENT_ID), eq(DRIVER_WINNER), any())).thenReturn(DRIVER_WINNER);
 
-    when(eventService.findEventById(EVENT_ID)).thenReturn(Optional.empty());
-    when(eventService.saveEvent(any(Event.class))).thenAnswer(inv -> inv.getArgument(0));
-
-    when(betRepository.countByEvent_IdAndStatus(EVENT_ID, BetStatus.WON)).thenReturn(0L);
-    when(betRepository.countByEvent_IdAndStatus(EVENT_ID, BetStatus.LOST)).thenReturn(0L);
+    when(betRepository.sumPendingPayouts(EVENT_ID, DRIVER_WINNER)).thenReturn(List.of());
+    when(betRepository.markWinningBets(EVENT_ID, DRIVER_WINNER)).thenReturn(0);
+    when(betRepository.markLosingBets(EVENT_ID, DRIVER_WINNER)).thenReturn(0);
 
     EventOutcome outcome = bettingService.settleOutcome(EVENT_ID, DRIVER_WINNER);
 
-    verify(betRepository, never()).saveAll(anyList());
-    verify(userService, never()).saveAll(anyList());
     assertThat(outcome.numberOfWinningBets()).isZero();
     assertThat(outcome.numberOfLostBets()).isZero();
   }
 
+  @Test
+  void settleOutcome_withDifferentWinner_isRejected() {
+    when(eventService.recordWinner(eq(EVENT_ID), eq(DRIVER_WINNER), any())).thenReturn(DRIVER_LOSER);
+
+    assertThatThrownBy(() -> bettingService.settleOutcome(EVENT_ID, DRIVER_WINNER))
+        .isInstanceOf(SettlementConflictException.class)
+        .hasMessageContaining("already settled");
+
+    verifyNoInteractions(betRepository, userService, eventStats);
+  }
+
+  @Test
+  void settleOutcome_whileChunkedSettlementIsInProgress_isRejected() {
+    when(eventService.recordWinner(eq(EVENT_ID), eq(DRIVER_WINNER), any())).thenReturn(DRIVER_WINNER);
+    when(checkpointRepository.findById(EVENT_ID)).thenReturn(Optional.of(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).jobId("job-20").winnerDriverId(DRIVER_WINNER)
+        .status(SettlementStatus.IN_PROGRESS).startedAt(Instant.now())
+        .build()));
+
+    assertThatThrownBy(() -> bettingService.settleOutcome(EVENT_ID, DRIVER_WINNER))
+        .isInstanceOf(SettlementConflictException.class)
+        .hasMessageContaining("job-20");
+
+    verifyNoInteractions(betRepository, userService, eventStats);
+  }
+
 }
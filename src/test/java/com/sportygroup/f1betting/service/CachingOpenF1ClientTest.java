@@ -0,0 +1,247 @@
+package com.sportygroup.f1betting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.f1betting.config.OpenF1CacheProperties;
+import com.sportygroup.f1betting.config.OpenF1SnapshotProperties;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingOpenF1ClientTest {
+
+  @Mock
+  private OpenF1Client delegate;
+
+  @Mock
+  private OpenF1AsyncClient asyncDelegate;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final OpenF1SnapshotStore snapshotStore = new OpenF1SnapshotStore(
+      new OpenF1SnapshotProperties(false, Path.of("unused"), 100), new ObjectMapper());
+
+  @Test
+  void finishedSessionAndDrivers_areServedFromCache() {
+    var client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+    Session finished = session("k1", "2024-07-01T16:00:00+00:00");
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+
+    when(delegate.fetchSessions("Race", "2024", "Austria")).thenReturn(new Session[]{finished});
+    when(delegate.fetchDriversBySession("k1")).thenReturn(drivers);
+
+    client.fetchSessions("Race", "2024", "Austria");
+    client.fetchSessions("Race", "2024", "Austria");
+    client.fetchDriversBySession("k1");
+    Driver[] second = client.fetchDriversBySession("k1");
+
+    assertThat(second).containsExactly(drivers);
+    verify(delegate, times(1)).fetchSessions("Race", "2024", "Austria");
+    verify(delegate, times(1)).fetchDriversBySession("k1");
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "openf1.drivers").tag("result", "hit")
+        .functionCounter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void expiredLiveEntry_isServedStale_whileRefreshing() {
+    var client = client(Duration.ofHours(1), Duration.ZERO);
+    Driver[] first = {new Driver("44", "Lewis Hamilton", "k1")};
+    Driver[] refreshed = {new Driver("1", "Max Verstappen", "k1")};
+
+    when(delegate.fetchDriversBySession("live")).thenReturn(first, refreshed);
+
+    assertThat(client.fetchDriversBySession("live")).containsExactly(first);
+    assertThat(client.fetchDriversBySession("live")).containsExactly(refreshed);
+  }
+
+  @Test
+  void refresh_runsWithBackgroundPriority() {
+    var client = client(Duration.ofHours(1), Duration.ZERO);
+    var priorities = new ArrayList<OpenF1Priority>();
+
+    when(delegate.fetchDriversBySession("live")).thenAnswer(invocation -> {
+      priorities.add(OpenF1Priority.current());
+      return new Driver[]{new Driver("44", "Lewis Hamilton", "k1")};
+    });
+
+    client.fetchDriversBySession("live");
+    client.fetchDriversBySession("live");
+
+    assertThat(priorities).containsExactly(OpenF1Priority.INTERACTIVE, OpenF1Priority.BACKGROUND);
+    assertThat(OpenF1Priority.current()).isEqualTo(OpenF1Priority.INTERACTIVE);
+  }
+
+  @Test
+  void staleRefresh_runsOnTheRefreshExecutor_notTheOpenF1Executor() {
+    var properties = new OpenF1CacheProperties(100, Duration.ofHours(1), Duration.ZERO, Duration.ofHours(1));
+    var refreshes = new AtomicInteger();
+    Executor openF1Executor = task -> {
+      throw new AssertionError("refresh ran on the OpenF1 executor");
+    };
+    Executor refreshExecutor = task -> {
+      refreshes.incrementAndGet();
+      task.run();
+    };
+    var client = new CachingOpenF1Client(delegate, properties, snapshotStore, openF1Executor, refreshExecutor,
+        meterRegistry, Optional.empty());
+    when(delegate.fetchDriversBySession("live")).thenReturn(new Driver[]{new Driver("44", "Lewis Hamilton", "k1")});
+
+    client.fetchDriversBySession("live");
+    client.fetchDriversBySession("live");
+
+    assertThat(refreshes).hasPositiveValue();
+    verify(delegate, times(2)).fetchDriversBySession("live");
+  }
+
+  @Test
+  void emptyRefresh_keepsPreviousValue() {
+    var client = client(Duration.ofHours(1), Duration.ZERO);
+    Driver[] first = {new Driver("44", "Lewis Hamilton", "k1")};
+
+    when(delegate.fetchDriversBySession("live")).thenReturn(first, new Driver[0]);
+
+    assertThat(client.fetchDriversBySession("live")).containsExactly(first);
+    assertThat(client.fetchDriversBySession("live")).containsExactly(first);
+  }
+
+  @Test
+  void emptyResult_isNotCached() {
+    var client = client(Duration.ofHours(1), Duration.ofHours(1));
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+
+    when(delegate.fetchDriversBySession("k1")).thenReturn(new Driver[0], drivers);
+
+    assertThat(client.fetchDriversBySession("k1")).isEmpty();
+    assertThat(client.fetchDriversBySession("k1")).containsExactly(drivers);
+  }
+
+  @Test
+  void finishedDriversFromSnapshot_doNotGoUpstream() {
+    var client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+    snapshotStore.saveDrivers("k1", drivers);
+
+    assertThat(client.fetchDriversBySession("k1")).containsExactly(drivers);
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void fetchedFinishedDrivers_areWrittenToSnapshot() {
+    var client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+    when(delegate.fetchSessions("Race", "2024", "Austria"))
+        .thenReturn(new Session[]{session("k1", "2024-07-01T16:00:00+00:00")});
+    when(delegate.fetchDriversBySession("k1")).thenReturn(drivers);
+
+    client.fetchSessions("Race", "2024", "Austria");
+    client.fetchDriversBySession("k1");
+
+    assertThat(snapshotStore.findDrivers("k1")).hasValueSatisfying(d -> assertThat(d).containsExactly(drivers));
+  }
+
+  @Test
+  void meetingLookup_seedsPerSessionDriverCache() {
+    var client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+    Driver[] k1 = {new Driver("44", "Lewis Hamilton", "k1")};
+    Driver[] k2 = {new Driver("16", "Charles Leclerc", "k2")};
+    when(delegate.fetchDriversByMeeting("m1")).thenReturn(Map.of("k1", k1, "k2", k2));
+
+    assertThat(client.fetchDriversByMeeting("m1")).containsOnlyKeys("k1", "k2");
+    assertThat(client.fetchDriversBySession("k2")).containsExactly(k2);
+    assertThat(client.fetchDriversByMeeting("m1")).containsOnlyKeys("k1", "k2");
+
+    verify(delegate, times(1)).fetchDriversByMeeting("m1");
+    verify(delegate, never()).fetchDriversBySession(anyString());
+  }
+
+  @Test
+  void asyncLookup_withoutAsyncDelegate_runsTheBlockingLookup() {
+    var client = client(Duration.ofHours(1), Duration.ofSeconds(30));
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+    when(delegate.fetchDriversBySession("k1")).thenReturn(drivers);
+
+    assertThat(client.fetchDriversBySessionAsync("k1").join()).containsExactly(drivers);
+    assertThat(client.fetchDriversBySession("k1")).containsExactly(drivers);
+    verify(delegate, times(1)).fetchDriversBySession("k1");
+  }
+
+  @Test
+  void asyncMiss_goesToAsyncDelegate_andIsCachedOnCompletion() {
+    var client = asyncClient();
+    Driver[] k1 = {new Driver("44", "Lewis Hamilton", "k1")};
+    var pending = new CompletableFuture<Map<String, Driver[]>>();
+    when(asyncDelegate.fetchDriversByMeetingAsync("m1")).thenReturn(pending);
+
+    var result = client.fetchDriversByMeetingAsync("m1");
+    assertThat(result).isNotDone();
+
+    pending.complete(Map.of("k1", k1));
+    assertThat(result.join()).containsOnlyKeys("k1");
+    assertThat(client.fetchDriversByMeetingAsync("m1").join()).containsOnlyKeys("k1");
+    assertThat(client.fetchDriversBySessionAsync("k1").join()).containsExactly(k1);
+
+    verify(asyncDelegate, times(1)).fetchDriversByMeetingAsync("m1");
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void concurrentAsyncMisses_forTheSameKey_shareOneUpstreamCall() {
+    var client = asyncClient();
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+    var pending = new CompletableFuture<Driver[]>();
+    when(asyncDelegate.fetchDriversBySessionAsync("k1")).thenReturn(pending);
+
+    var first = client.fetchDriversBySessionAsync("k1");
+    var second = client.fetchDriversBySessionAsync("k1");
+    pending.complete(drivers);
+
+    assertThat(first.join()).containsExactly(drivers);
+    assertThat(second.join()).containsExactly(drivers);
+    verify(asyncDelegate, times(1)).fetchDriversBySessionAsync("k1");
+  }
+
+  @Test
+  void asyncMiss_answeredFromSnapshot_doesNotGoUpstream() {
+    var client = asyncClient();
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+    snapshotStore.saveDrivers("k1", drivers);
+
+    assertThat(client.fetchDriversBySessionAsync("k1").join()).containsExactly(drivers);
+    verifyNoInteractions(delegate, asyncDelegate);
+  }
+
+  private CachingOpenF1Client client(Duration finishedTtl, Duration liveTtl) {
+    var properties = new OpenF1CacheProperties(100, finishedTtl, liveTtl, Duration.ofHours(1));
+    return new CachingOpenF1Client(delegate, properties, snapshotStore, Runnable::run, Runnable::run, meterRegistry, Optional.empty());
+  }
+
+  private CachingOpenF1Client asyncClient() {
+    var properties = new OpenF1CacheProperties(100, Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofHours(1));
+    return new CachingOpenF1Client(delegate, properties, snapshotStore, Runnable::run, Runnable::run, meterRegistry,
+        Optional.of(asyncDelegate));
+  }
+
+  private static Session session(String key, String dateEnd) {
+    return new Session(
+        "circuitKey", "circuitShort", "AT", "cc", "Austria",
+        dateEnd, "2024-07-01T14:00:00+00:00", "+00:00", "Spielberg",
+        "mtgKey", key, "Race", "Race", "2024"
+    );
+  }
+}
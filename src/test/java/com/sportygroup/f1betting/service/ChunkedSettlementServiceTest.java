@@ -0,0 +1,198 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.config.SettlementProperties;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.SettlementCheckpoint;
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import com.sportygroup.f1betting.exceptions.SettlementConflictException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.model.EventOutcome;
+import com.sportygroup.f1betting.model.SettlementRow;
+import com.sportygroup.f1betting.repository.BetRepository;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedSettlementServiceTest {
+
+  private static final Long EVENT_ID = 20L;
+  private static final Long WINNER = 44L;
+  private static final Long LOSER = 16L;
+
+  @Mock private BetRepository betRepository;
+  @Mock private UserService userService;
+  @Mock private EventService eventService;
+  @Mock private SettlementCheckpointRepository checkpointRepository;
+  @Mock private EventStatsRegistry eventStats;
+
+  private final AtomicReference<SettlementCheckpoint> stored = new AtomicReference<>();
+
+  private ChunkedSettlementService service;
+
+  @BeforeEach
+  void setUp() {
+    var transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    service = new ChunkedSettlementService(betRepository, userService, eventService,
+        checkpointRepository, transactionTemplate, new SettlementProperties(2, 1), eventStats);
+
+    lenient().when(checkpointRepository.findById(EVENT_ID))
+        .thenAnswer(inv -> Optional.ofNullable(stored.get()));
+    lenient().when(checkpointRepository.save(any(SettlementCheckpoint.class)))
+        .thenAnswer(inv -> {
+          stored.set(inv.getArgument(0));
+          return inv.getArgument(0);
+        });
+    // every test settles an event whose winner is (or becomes) WINNER
+    lenient().when(eventService.recordWinner(eq(EVENT_ID), anyLong(), isNull())).thenReturn(WINNER);
+  }
+
+  @Test
+  void settle_processesChunksUntilNoPendingBets_andCheckpointsEachChunk() {
+    when(eventService.findEventById(EVENT_ID))
+        .thenReturn(Optional.of(Event.builder().id(EVENT_ID).build()));
+    when(eventService.saveEvent(any(Event.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    when(betRepository.lockPendingChunk(EVENT_ID, 0L, 2)).thenReturn(List.of(
+        new SettlementRow(1L, 100L, WINNER, 1_000L, 300L),
+        new SettlementRow(2L, 101L, LOSER, 500L, 200L)));
+    when(betRepository.lockPendingChunk(EVENT_ID, 2L, 2)).thenReturn(List.of(
+        new SettlementRow(3L, 100L, LOSER, 333L, 175L)));
+    when(betRepository.lockPendingChunk(EVENT_ID, 3L, 2)).thenReturn(List.of());
+
+    when(betRepository.markBets(List.of(1L), BetStatus.WON)).thenReturn(1);
+    when(betRepository.markBets(List.of(2L), BetStatus.LOST)).thenReturn(1);
+    when(betRepository.markBets(List.of(3L), BetStatus.LOST)).thenReturn(1);
+
+    EventOutcome outcome = service.settle(EVENT_ID, WINNER);
+
+    assertThat(outcome).isEqualTo(new EventOutcome(EVENT_ID, WINNER, 1L, 2L));
+    verify(userService).creditBalances(deltas(100L, 3_000L));
+    verify(userService).creditBalances(new BalanceDeltas(1));
+    assertThat(stored.get().getStatus()).isEqualTo(SettlementStatus.COMPLETED);
+    assertThat(stored.get().getLastBetId()).isEqualTo(3L);
+    InOrder inOrder = inOrder(eventService, checkpointRepository, betRepository);
+    inOrder.verify(eventService).recordWinner(EVENT_ID, WINNER, null);
+    inOrder.verify(checkpointRepository).save(any(SettlementCheckpoint.class));
+    inOrder.verify(betRepository).lockPendingChunk(EVENT_ID, 0L, 2);
+    verify(eventService).saveEvent(argThat(e -> e.getSettledAt() != null));
+  }
+
+  @Test
+  void settle_paysNothing_whenFewerBetsWereTransitionedThanLocked() {
+    stored.set(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).winnerDriverId(WINNER).status(SettlementStatus.IN_PROGRESS)
+        .startedAt(Instant.now())
+        .build());
+    when(betRepository.lockPendingChunk(EVENT_ID, 0L, 2)).thenReturn(List.of(
+        new SettlementRow(1L, 100L, WINNER, 1_000L, 300L),
+        new SettlementRow(2L, 101L, WINNER, 500L, 200L)));
+    when(betRepository.markBets(List.of(1L, 2L), BetStatus.WON)).thenReturn(1);
+
+    assertThatThrownBy(() -> service.settle(EVENT_ID, WINNER))
+        .isInstanceOf(OptimisticLockingFailureException.class);
+
+    verify(userService, never()).creditBalances(any());
+    verifyNoInteractions(eventStats);
+    assertThat(stored.get().getLastBetId()).isZero();
+  }
+
+  @Test
+  void settle_resumesAfterLastCommittedChunk() {
+    stored.set(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).winnerDriverId(WINNER).status(SettlementStatus.IN_PROGRESS)
+        .lastBetId(2L).wonBets(1L).lostBets(1L).startedAt(Instant.now()).version(3L)
+        .build());
+    when(eventService.findEventById(EVENT_ID))
+        .thenReturn(Optional.of(Event.builder().id(EVENT_ID).winnerDriverId(WINNER).build()));
+    when(betRepository.lockPendingChunk(EVENT_ID, 2L, 2)).thenReturn(List.of());
+
+    EventOutcome outcome = service.settle(EVENT_ID, WINNER);
+
+    assertThat(outcome).isEqualTo(new EventOutcome(EVENT_ID, WINNER, 1L, 1L));
+    verify(betRepository, never()).lockPendingChunk(EVENT_ID, 0L, 2);
+    verify(userService, never()).creditBalances(any());
+  }
+
+  @Test
+  void settle_withDifferentWinner_isRejected() {
+    stored.set(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).winnerDriverId(WINNER).status(SettlementStatus.IN_PROGRESS)
+        .startedAt(Instant.now())
+        .build());
+
+    assertThatThrownBy(() -> service.settle(EVENT_ID, LOSER))
+        .isInstanceOf(SettlementConflictException.class)
+        .hasMessageContaining("already settled");
+
+    verifyNoInteractions(betRepository, userService);
+  }
+
+  @Test
+  void settle_reopensFailedSettlement() {
+    stored.set(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).jobId("job-20").winnerDriverId(WINNER).status(SettlementStatus.FAILED)
+        .failure("db down").lastBetId(2L).startedAt(Instant.now())
+        .build());
+    when(eventService.findEventById(EVENT_ID))
+        .thenReturn(Optional.of(Event.builder().id(EVENT_ID).winnerDriverId(WINNER).build()));
+    when(betRepository.lockPendingChunk(EVENT_ID, 2L, 2)).thenReturn(List.of());
+
+    service.settle(EVENT_ID, WINNER);
+
+    assertThat(stored.get().getStatus()).isEqualTo(SettlementStatus.COMPLETED);
+    assertThat(stored.get().getFailure()).isNull();
+    assertThat(stored.get().getJobId()).isEqualTo("job-20");
+  }
+
+  @Test
+  void markFailed_recordsCause_andProgressExposesIt() {
+    stored.set(SettlementCheckpoint.builder()
+        .eventId(EVENT_ID).jobId("job-20").winnerDriverId(WINNER).status(SettlementStatus.IN_PROGRESS)
+        .startedAt(Instant.now())
+        .build());
+    when(checkpointRepository.findByJobId("job-20")).thenAnswer(inv -> Optional.of(stored.get()));
+
+    service.markFailed(EVENT_ID, new IllegalStateException("db down"));
+
+    var progress = service.findProgressByJobId("job-20").orElseThrow();
+    assertThat(progress.status()).isEqualTo(SettlementStatus.FAILED);
+    assertThat(progress.failure()).isEqualTo("db down");
+    assertThat(progress.outcome()).isNull();
+  }
+
+  @Test
+  void computePayouts_sumsWinningPayoutsPerUser_andIgnoresLosingStakes() {
+    var rows = List.of(
+        new SettlementRow(1L, 100L, WINNER, 1_000L, 250L),
+        new SettlementRow(2L, 100L, LOSER, 400L, 300L),
+        new SettlementRow(3L, 101L, LOSER, 700L, 150L),
+        new SettlementRow(4L, 102L, WINNER, 333L, 175L));
+
+    assertThat(ChunkedSettlementService.computePayouts(rows, WINNER))
+        .isEqualTo(deltas(100L, 2_500L, 102L, 582L));
+  }
+
+  private static BalanceDeltas deltas(long... userIdAndDelta) {
+    var deltas = new BalanceDeltas(userIdAndDelta.length / 2);
+    for (int i = 0; i < userIdAndDelta.length; i += 2) {
+      deltas.add(userIdAndDelta[i], userIdAndDelta[i + 1]);
+    }
+    return deltas;
+  }
+}
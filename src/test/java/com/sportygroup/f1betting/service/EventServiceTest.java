@@ -99,4 +99,40 @@ class EventServiceTest {
     verify(eventRepository).save(toSave);
     assertThat(result).isEqualTo(saved);
   }
+
+  @Test
+  void recordWinner_createsEvent_andReturnsTheWinnerItWrote() {
+    Instant settledAt = Instant.now();
+    when(eventRepository.setWinnerIfAbsent(42L, 30L, settledAt)).thenReturn(true);
+
+    Long winner = eventService.recordWinner(42L, 30L, settledAt);
+
+    InOrder inOrder = inOrder(eventRepository);
+    inOrder.verify(eventRepository).insertIfAbsent(42L);
+    inOrder.verify(eventRepository).setWinnerIfAbsent(42L, 30L, settledAt);
+    verify(eventRepository, never()).findById(any());
+    assertThat(winner).isEqualTo(30L);
+  }
+
+  @Test
+  void recordWinner_returnsTheWinnerRecordedBefore() {
+    when(eventRepository.setWinnerIfAbsent(42L, 30L, null)).thenReturn(false);
+    when(eventRepository.findById(42L))
+        .thenReturn(Optional.of(Event.builder().id(42L).winnerDriverId(44L).build()));
+
+    assertThat(eventService.recordWinner(42L, 30L, null)).isEqualTo(44L);
+  }
+
+  @Test
+  void lockOpenEvents_locksInIdOrder_andReturnsTheSettledOnes() {
+    when(eventRepository.lockIfOpen(anyLong())).thenAnswer(inv -> !inv.getArgument(0).equals(21L));
+
+    var finished = eventService.lockOpenEvents(List.of(22L, 20L, 21L));
+
+    InOrder inOrder = inOrder(eventRepository);
+    inOrder.verify(eventRepository).lockIfOpen(20L);
+    inOrder.verify(eventRepository).lockIfOpen(21L);
+    inOrder.verify(eventRepository).lockIfOpen(22L);
+    assertThat(finished).containsExactly(21L);
+  }
 }
@@ -0,0 +1,161 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.Bet;
+import com.sportygroup.f1betting.entity.BetStatus;
+import com.sportygroup.f1betting.entity.Event;
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.model.BetTotals;
+import com.sportygroup.f1betting.model.SettlementRow;
+import com.sportygroup.f1betting.repository.BetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventStatsRegistryTest {
+
+  private static final long EVENT_ID = 20L;
+  private static final long WINNER = 44L;
+  private static final long LOSER = 16L;
+
+  @Mock private BetRepository betRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private EventStatsRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry = new EventStatsRegistry(betRepository, meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void recordPlaced_accumulatesStakesCountsAndLiabilityPerDriver() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, WINNER, 333L, 175L), bet(3L, LOSER, 500L, 200L)));
+
+    var stats = registry.find(EVENT_ID).orElseThrow();
+    assertThat(stats.totalStakes()).isEqualTo(10_833L);
+    assertThat(stats.betsByStatus()).containsEntry(BetStatus.PENDING, 3L).containsEntry(BetStatus.WON, 0L);
+    assertThat(stats.potentialPayoutByDriver()).isEqualTo(Map.of(WINNER, 25_582L, LOSER, 1_000L));
+    assertThat(registry.find(21L)).isEmpty();
+    verifyNoInteractions(betRepository);
+  }
+
+  @Test
+  void recordSettled_movesAllPendingBets_andClearsLiability() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, LOSER, 500L, 200L), bet(3L, LOSER, 700L, 300L)));
+
+    registry.recordSettled(EVENT_ID, 1L, 2L);
+
+    var stats = registry.find(EVENT_ID).orElseThrow();
+    assertThat(stats.betsByStatus()).isEqualTo(Map.of(BetStatus.PENDING, 0L, BetStatus.WON, 1L, BetStatus.LOST, 2L));
+    assertThat(stats.potentialPayoutByDriver()).isEmpty();
+    assertThat(stats.totalStakes()).isEqualTo(11_200L);
+  }
+
+  @Test
+  void recordSettled_countsTheBetsTheStatementsSettled_notThePendingBetsInMemory() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, LOSER, 500L, 200L)));
+
+    registry.recordSettled(EVENT_ID, 2L, 1L);
+
+    assertThat(registry.find(EVENT_ID).orElseThrow().betsByStatus())
+        .containsEntry(BetStatus.WON, 2L)
+        .containsEntry(BetStatus.LOST, 1L);
+  }
+
+  @Test
+  void recordSettledChunk_onlyMovesTheSettledRows() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, LOSER, 500L, 200L), bet(3L, LOSER, 700L, 300L)));
+
+    registry.recordSettled(EVENT_ID, WINNER, List.of(
+        new SettlementRow(1L, 100L, WINNER, 10_000L, 250L),
+        new SettlementRow(2L, 102L, LOSER, 500L, 200L)));
+
+    var stats = registry.find(EVENT_ID).orElseThrow();
+    assertThat(stats.betsByStatus()).isEqualTo(Map.of(BetStatus.PENDING, 1L, BetStatus.WON, 1L, BetStatus.LOST, 1L));
+    assertThat(stats.potentialPayoutByDriver()).isEqualTo(Map.of(LOSER, 2_100L));
+  }
+
+  @Test
+  void pendingGauge_followsPendingBets_andIsRemovedOnceTheEventIsSettled() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, LOSER, 500L, 200L)));
+    assertThat(meterRegistry.get("bets.pending").tag("event", "20").gauge().value()).isEqualTo(2.0);
+
+    registry.recordSettled(EVENT_ID, WINNER, List.of(new SettlementRow(1L, 101L, WINNER, 10_000L, 250L)));
+    assertThat(meterRegistry.get("bets.pending").tag("event", "20").gauge().value()).isEqualTo(1.0);
+
+    registry.recordSettled(EVENT_ID, WINNER, List.of(new SettlementRow(2L, 102L, LOSER, 500L, 200L)));
+    assertThat(meterRegistry.find("bets.pending").tag("event", "20").gauge()).isNull();
+  }
+
+  @Test
+  void updates_areAppliedOnlyOnceTheTransactionCommits() {
+    TransactionSynchronizationManager.initSynchronization();
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L)));
+
+    assertThat(registry.find(EVENT_ID)).isEmpty();
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    assertThat(registry.find(EVENT_ID)).get()
+        .extracting(stats -> stats.betsByStatus().get(BetStatus.PENDING)).isEqualTo(1L);
+  }
+
+  @Test
+  void rebuild_loadsAggregatesFromBets() {
+    when(betRepository.sumTotals()).thenReturn(List.of(
+        new BetTotals(EVENT_ID, WINNER, BetStatus.PENDING, 2L, 1_000L, 3_000L),
+        new BetTotals(EVENT_ID, LOSER, BetStatus.LOST, 1L, 500L, 1_000L),
+        new BetTotals(21L, WINNER, BetStatus.WON, 1L, 200L, 400L)));
+
+    registry.rebuild();
+
+    var stats = registry.find(EVENT_ID).orElseThrow();
+    assertThat(stats.totalStakes()).isEqualTo(1_500L);
+    assertThat(stats.betsByStatus()).containsEntry(BetStatus.PENDING, 2L).containsEntry(BetStatus.LOST, 1L);
+    assertThat(stats.potentialPayoutByDriver()).isEqualTo(Map.of(WINNER, 3_000L));
+    assertThat(registry.find(21L).orElseThrow().potentialPayoutByDriver()).isEmpty();
+  }
+
+  @Test
+  void rebuild_replacesEarlierAggregates_andRebindsThePendingGauge() {
+    registry.recordPlaced(List.of(bet(1L, WINNER, 10_000L, 250L), bet(2L, LOSER, 500L, 200L)));
+    when(betRepository.sumTotals()).thenReturn(List.of(
+        new BetTotals(EVENT_ID, WINNER, BetStatus.PENDING, 5L, 1_000L, 3_000L)));
+
+    registry.rebuild();
+
+    assertThat(registry.find(EVENT_ID).orElseThrow().totalStakes()).isEqualTo(1_000L);
+    assertThat(meterRegistry.get("bets.pending").tag("event", "20").gauge().value()).isEqualTo(5.0);
+  }
+
+  private static Bet bet(long id, long driverId, long amount, long odds) {
+    return Bet.builder()
+        .id(id)
+        .user(User.builder().id(100L + id).build())
+        .event(Event.builder().id(EVENT_ID).build())
+        .driverId(driverId)
+        .amount(amount)
+        .odds(odds)
+        .status(BetStatus.PENDING)
+        .build();
+  }
+}
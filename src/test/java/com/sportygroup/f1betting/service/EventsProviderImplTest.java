@@ -4,14 +4,25 @@ import com.sportygroup.f1betting.model.Driver;
 import com.sportygroup.f1betting.model.DriverMarket;
 import com.sportygroup.f1betting.model.EventDetails;
 import com.sportygroup.f1betting.model.Session;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -19,11 +30,15 @@ import static org.mockito.Mockito.*;
 class EventsProviderImplTest {
 
   @Mock
-  private OpenF1Client openF1Client;
+  private OpenF1AsyncClient openF1Client;
 
-  @InjectMocks
   private EventsProviderImpl eventsProvider;
 
+  @BeforeEach
+  void setUp() {
+    eventsProvider = new EventsProviderImpl(openF1Client);
+  }
+
   @Test
   void getAllEvents_mapsSessionsAndDrivers_andOddsWithinRange() {
     // given
@@ -31,30 +46,29 @@ class EventsProviderImplTest {
     String year = "2024";
     String country = "Austria";
 
-    Session s1 = session("k1", "Race", "2024", "Austria");
-    Session s2 = session("k2", "Race", "2024", "Austria");
+    Session s1 = session("k1", "m1", "Race", "2024", "Austria");
+    Session s2 = session("k2", "m1", "Race", "2024", "Austria");
 
-    when(openF1Client.fetchSessions(sessionType, year, country))
-        .thenReturn(new Session[]{s1, s2});
+    when(openF1Client.fetchSessionsAsync(sessionType, year, country))
+        .thenReturn(completedFuture(new Session[]{s1, s2}));
 
     Driver[] s1Drivers = new Driver[] {
-        new Driver("44", "Lewis Hamilton"),
-        new Driver("1",  "Max Verstappen")
+        new Driver("44", "Lewis Hamilton", "k1"),
+        new Driver("1",  "Max Verstappen", "k1")
     };
     Driver[] s2Drivers = new Driver[] {
-        new Driver("16", "Charles Leclerc")
+        new Driver("16", "Charles Leclerc", "k2")
     };
 
-    when(openF1Client.fetchDriversBySession("k1")).thenReturn(s1Drivers);
-    when(openF1Client.fetchDriversBySession("k2")).thenReturn(s2Drivers);
+    when(openF1Client.fetchDriversByMeetingAsync("m1")).thenReturn(completedFuture(Map.of("k1", s1Drivers, "k2", s2Drivers)));
 
     // when
     List<EventDetails> result = eventsProvider.getAllEvents(sessionType, year, country);
 
     // then
-    verify(openF1Client).fetchSessions(sessionType, year, country);
-    verify(openF1Client).fetchDriversBySession("k1");
-    verify(openF1Client).fetchDriversBySession("k2");
+    verify(openF1Client).fetchSessionsAsync(sessionType, year, country);
+    verify(openF1Client, times(1)).fetchDriversByMeetingAsync("m1");
+    verify(openF1Client, never()).fetchDriversBySessionAsync(anyString());
 
     assertThat(result).hasSize(2);
 
@@ -78,15 +92,107 @@ class EventsProviderImplTest {
 
   @Test
   void getAllEvents_whenNoSessions_returnsEmpty_andSkipsDriversFetch() {
-    when(openF1Client.fetchSessions("Race", "2024", "Austria"))
-        .thenReturn(new Session[0]);
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[0]));
 
     List<EventDetails> result = eventsProvider.getAllEvents("Race", "2024", "Austria");
 
     assertThat(result).isEmpty();
-    verify(openF1Client, never()).fetchDriversBySession(anyString());
+    verify(openF1Client, never()).fetchDriversBySessionAsync(anyString());
+    verify(openF1Client, never()).fetchDriversByMeetingAsync(anyString());
+  }
+
+  @Test
+  void getAllEvents_whenMeetingFetchFails_degradesThatMeetingOnly_andKeepsOrder() {
+    Session s1 = session("k1", "m1", "Race", "2024", "Austria");
+    Session s2 = session("k2", "m2", "Race", "2024", "Austria");
+    Session s3 = session("k3", "m3", "Race", "2024", "Austria");
+
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[]{s1, s2, s3}));
+    when(openF1Client.fetchDriversByMeetingAsync("m1"))
+        .thenReturn(completedFuture(Map.of("k1", new Driver[]{new Driver("44", "Lewis Hamilton", "k1")})));
+    when(openF1Client.fetchDriversByMeetingAsync("m2"))
+        .thenReturn(failedFuture(new IllegalStateException("boom")));
+    when(openF1Client.fetchDriversByMeetingAsync("m3"))
+        .thenReturn(completedFuture(Map.of("k3", new Driver[]{new Driver("1", "Max Verstappen", "k3")})));
+
+    List<EventDetails> result = eventsProvider.getAllEvents("Race", "2024", "Austria");
+
+    assertThat(result).extracting(EventDetails::id).containsExactly("k1", "k2", "k3");
+    assertThat(result.get(0).driverMarket()).hasSize(1);
+    assertThat(result.get(1).driverMarket()).isEmpty();
+    assertDriverMarket(result.get(2).driverMarket().get(0), "1", "Max Verstappen");
+  }
+
+  @Test
+  void getAllEvents_withoutMeetingKey_fallsBackToSessionLookup() {
+    Session s1 = session("k1", null, "Race", "2024", "Austria");
+
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[]{s1}));
+    when(openF1Client.fetchDriversBySessionAsync("k1"))
+        .thenReturn(completedFuture(new Driver[]{new Driver("44", "Lewis Hamilton", "k1")}));
+
+    List<EventDetails> result = eventsProvider.getAllEvents("Race", "2024", "Austria");
+
+    assertThat(result).hasSize(1);
+    assertDriverMarket(result.get(0).driverMarket().get(0), "44", "Lewis Hamilton");
+    verify(openF1Client, never()).fetchDriversByMeetingAsync(anyString());
   }
 
+  @Test
+  void streamEvents_deliversEveryEventToConsumer() {
+    Session s1 = session("k1", "m1", "Race", "2024", "Austria");
+    Session s2 = session("k2", "m2", "Race", "2024", "Austria");
+
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[]{s1, s2}));
+    when(openF1Client.fetchDriversByMeetingAsync("m1"))
+        .thenReturn(completedFuture(Map.of("k1", new Driver[]{new Driver("44", "Lewis Hamilton", "k1")})));
+    when(openF1Client.fetchDriversByMeetingAsync("m2"))
+        .thenReturn(completedFuture(Map.of("k2", new Driver[]{new Driver("1", "Max Verstappen", "k2")})));
+
+    List<EventDetails> streamed = new ArrayList<>();
+    eventsProvider.streamEvents("Race", "2024", "Austria", streamed::add);
+
+    assertThat(streamed).extracting(EventDetails::id).containsExactlyInAnyOrder("k1", "k2");
+  }
+
+  @Test
+  void streamEvents_cancelsOutstandingLookups_whenTheConsumerFails() {
+    Session s1 = session("k1", "m1", "Race", "2024", "Austria");
+    Session s2 = session("k2", "m2", "Race", "2024", "Austria");
+    var slowMeeting = new CompletableFuture<Map<String, Driver[]>>();
+
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[]{s1, s2}));
+    when(openF1Client.fetchDriversByMeetingAsync("m1"))
+        .thenReturn(completedFuture(Map.of("k1", new Driver[]{new Driver("44", "Lewis Hamilton", "k1")})));
+    when(openF1Client.fetchDriversByMeetingAsync("m2")).thenReturn(slowMeeting);
+
+    assertThatThrownBy(() -> eventsProvider.streamEvents("Race", "2024", "Austria", details -> {
+      throw new UncheckedIOException(new IOException("Broken pipe"));
+    })).isInstanceOf(UncheckedIOException.class);
+
+    assertThat(slowMeeting).isCancelled();
+  }
+
+  @Test
+  void streamEvents_givesUpAfterTheRequestTimeout_andCancelsOutstandingLookups() {
+    ReflectionTestUtils.setField(eventsProvider, "streamTimeout", Duration.ofMillis(50));
+    Session s1 = session("k1", "m1", "Race", "2024", "Austria");
+    var neverAnswered = new CompletableFuture<Map<String, Driver[]>>();
+
+    when(openF1Client.fetchSessionsAsync("Race", "2024", "Austria"))
+        .thenReturn(completedFuture(new Session[]{s1}));
+    when(openF1Client.fetchDriversByMeetingAsync("m1")).thenReturn(neverAnswered);
+
+    assertThatThrownBy(() -> eventsProvider.streamEvents("Race", "2024", "Austria", details -> { }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("Timed out");
+    assertThat(neverAnswered).isCancelled();
+  }
 
   private static void assertDriverMarket(DriverMarket dm, String expectedId, String expectedName) {
     assertThat(dm.driverId()).isEqualTo(expectedId);
@@ -94,7 +200,7 @@ class EventsProviderImplTest {
     assertThat(dm.odds()).isBetween(2, 4);
   }
 
-  private static Session session(String key, String type, String year, String country) {
+  private static Session session(String key, String meetingKey, String type, String year, String country) {
     return new Session(
         "circuitKey",        // circuit_key
         "circuitShort",      // circuit_short_name
@@ -105,7 +211,7 @@ class EventsProviderImplTest {
         "2024-07-01T14:00Z", // date_start
         "+00:00",            // gmt_offset
         "Spielberg",         // location
-        "mtgKey",            // meeting_key
+        meetingKey,          // meeting_key   <- used
         key,                 // session_key   <- used
         "Race Name",         // session_name
         type,                // session_type  <- used
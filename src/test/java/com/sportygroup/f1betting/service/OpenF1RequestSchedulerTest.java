@@ -0,0 +1,191 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.config.OpenF1HttpProperties;
+import com.sportygroup.f1betting.config.OpenF1SchedulerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenF1RequestSchedulerTest {
+
+  private static final Duration WAIT = Duration.ofSeconds(5);
+  private static final OpenF1HttpProperties HTTP = new OpenF1HttpProperties(20, 10, Duration.ofSeconds(1),
+      Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30),
+      Duration.ofMinutes(5), Duration.ofSeconds(30), true);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private OpenF1RequestScheduler scheduler;
+
+  @AfterEach
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  void requestsForTheSameKey_shareOneCall() {
+    scheduler = scheduler(100, Duration.ofSeconds(30));
+    var calls = new AtomicInteger();
+    var upstream = new CompletableFuture<String>();
+
+    var first = scheduler.submitAsync("drivers", "/drivers?session_key=1", () -> {
+      calls.incrementAndGet();
+      return upstream;
+    });
+    var second = scheduler.submitAsync("drivers", "/drivers?session_key=1", () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("other");
+    });
+    upstream.complete("drivers");
+
+    assertThat(first).succeedsWithin(WAIT).isEqualTo("drivers");
+    assertThat(second).succeedsWithin(WAIT).isEqualTo("drivers");
+    assertThat(calls).hasValue(1);
+    assertThat(meterRegistry.get("openf1.scheduler.coalesced").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void interactiveRequests_goBeforeQueuedBackgroundRequests() {
+    scheduler = scheduler(5, Duration.ofSeconds(30));
+    var order = Collections.synchronizedList(new ArrayList<String>());
+
+    var futures = new ArrayList<CompletableFuture<String>>();
+    futures.add(OpenF1Priority.BACKGROUND.call(() -> submit("refresh-1", order)));
+    futures.add(OpenF1Priority.BACKGROUND.call(() -> submit("refresh-2", order)));
+    futures.add(submit("miss", order));
+
+    futures.forEach(future -> assertThat(future).succeedsWithin(WAIT));
+    assertThat(order.indexOf("miss")).isLessThan(order.indexOf("refresh-2"));
+  }
+
+  @Test
+  void tooManyRequests_isRetriedAfterRetryAfter_atALowerRate() {
+    scheduler = scheduler(10, Duration.ofSeconds(30));
+    var headers = new HttpHeaders();
+    headers.add(HttpHeaders.RETRY_AFTER, "0");
+    var attempts = new AtomicInteger();
+
+    var result = scheduler.submit("sessions", "/sessions", () -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+      }
+      return "sessions";
+    });
+
+    assertThat(result).succeedsWithin(WAIT).isEqualTo("sessions");
+    assertThat(attempts).hasValue(2);
+    assertThat(meterRegistry.get("openf1.scheduler.throttled").counter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("openf1.scheduler.rate").gauge().value()).isLessThan(10.0);
+    assertThat(meterRegistry.get("openf1.requests").tag("outcome", "throttled").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void otherFailures_areNotRetried() {
+    scheduler = scheduler(10, Duration.ofSeconds(30));
+    var attempts = new AtomicInteger();
+
+    var result = scheduler.submit("sessions", "/sessions", () -> {
+      attempts.incrementAndGet();
+      throw new IllegalStateException("boom");
+    });
+
+    assertThat(result).failsWithin(WAIT).withThrowableThat().withRootCauseInstanceOf(IllegalStateException.class);
+    assertThat(attempts).hasValue(1);
+  }
+
+  @Test
+  void requestWaitingLongerThanMaxWait_failsWithoutBeingSent() {
+    scheduler = scheduler(2, Duration.ofMillis(50));
+    var calls = new AtomicInteger();
+
+    scheduler.submitAsync("sessions", "/sessions?year=2024", () -> {
+      calls.incrementAndGet();
+      return new CompletableFuture<>();
+    });
+    var late = scheduler.submitAsync("sessions", "/sessions?year=2025", () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("late");
+    });
+
+    assertThat(late).failsWithin(WAIT).withThrowableThat().withRootCauseInstanceOf(TimeoutException.class);
+    assertThat(calls).hasValue(1);
+    assertThat(meterRegistry.get("openf1.scheduler.expired").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void callThreads_coverEveryCallTheRateStartsWithinTheHttpTimeouts() {
+    assertThat(OpenF1RequestScheduler.callThreads(3, HTTP)).isEqualTo(24);
+    assertThat(OpenF1RequestScheduler.callThreads(0.5, HTTP)).isEqualTo(4);
+  }
+
+  @Test
+  void slowCalls_doNotHoldBackLaterCallsOnTheCallThreads() throws Exception {
+    scheduler = scheduler(2, Duration.ofSeconds(30));
+    var release = new CountDownLatch(1);
+    var slow = List.of(
+        scheduler.submit("sessions", "/sessions?slow=1", () -> awaitRelease(release)),
+        scheduler.submit("sessions", "/sessions?slow=2", () -> awaitRelease(release)));
+
+    var fast = scheduler.submit("sessions", "/sessions?fast", () -> "fast");
+
+    try {
+      assertThat(fast.get(WAIT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo("fast");
+      assertThat(slow).noneMatch(CompletableFuture::isDone);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  private static String awaitRelease(CountDownLatch release) {
+    try {
+      release.await();
+      return "slow";
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  void retryAfter_isReadAsSecondsOrHttpDate() {
+    var now = Instant.parse("2025-06-01T12:00:00Z");
+    var fallback = Duration.ofSeconds(1);
+
+    assertThat(OpenF1RequestScheduler.parseRetryAfter("3", fallback, now)).isEqualTo(Duration.ofSeconds(3));
+    assertThat(OpenF1RequestScheduler.parseRetryAfter("Sun, 01 Jun 2025 12:00:10 GMT", fallback, now))
+        .isEqualTo(Duration.ofSeconds(10));
+    assertThat(OpenF1RequestScheduler.parseRetryAfter("Sun, 01 Jun 2025 11:00:00 GMT", fallback, now))
+        .isEqualTo(Duration.ZERO);
+    assertThat(OpenF1RequestScheduler.parseRetryAfter("soon", fallback, now)).isEqualTo(fallback);
+    assertThat(OpenF1RequestScheduler.parseRetryAfter(null, fallback, now)).isEqualTo(fallback);
+  }
+
+  private CompletableFuture<String> submit(String key, List<String> order) {
+    return scheduler.submit("sessions", key, () -> {
+      order.add(key);
+      return key;
+    });
+  }
+
+  private OpenF1RequestScheduler scheduler(double rate, Duration maxWait) {
+    var properties = new OpenF1SchedulerProperties(rate, 0.5, 0.1, 0.5, Duration.ofSeconds(1), 3, maxWait);
+    return new OpenF1RequestScheduler(properties, HTTP, meterRegistry, false);
+  }
+}
@@ -0,0 +1,107 @@
+package com.sportygroup.f1betting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sportygroup.f1betting.config.OpenF1SnapshotProperties;
+import com.sportygroup.f1betting.model.Driver;
+import com.sportygroup.f1betting.model.Session;
+import com.sportygroup.f1betting.model.SessionQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenF1SnapshotStoreTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void flush_thenLoad_restoresSessionsAndDrivers() {
+    var properties = new OpenF1SnapshotProperties(true, dir.resolve("snapshot.json"), 100);
+    var query = new SessionQuery("Race", "2024", "Austria");
+    var fetchedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Session[] sessions = {session("k1")};
+    Driver[] drivers = {new Driver("44", "Lewis Hamilton", "k1")};
+
+    var store = new OpenF1SnapshotStore(properties, objectMapper);
+    store.saveSessions(query, sessions, fetchedAt);
+    store.saveDrivers("k1", drivers);
+    store.flush();
+
+    var restored = new OpenF1SnapshotStore(properties, objectMapper);
+    restored.load();
+
+    assertThat(restored.findSessions(query)).hasValueSatisfying(entry -> {
+      assertThat(entry.sessions()).containsExactly(sessions);
+      assertThat(entry.fetchedAt()).isEqualTo(fetchedAt);
+    });
+    assertThat(restored.findDrivers("k1")).hasValueSatisfying(d -> assertThat(d).containsExactly(drivers));
+  }
+
+  @Test
+  void failedFlush_leavesNoTemporaryFileBehind() throws Exception {
+    var path = dir.resolve("snapshot.json");
+    Files.createDirectories(path.resolve("occupied"));
+    var store = new OpenF1SnapshotStore(new OpenF1SnapshotProperties(true, path, 100), objectMapper);
+    store.saveDrivers("k1", new Driver[]{new Driver("44", "Lewis Hamilton", "k1")});
+
+    store.flush();
+    store.saveDrivers("k2", new Driver[0]);
+    store.flush();
+
+    try (var files = Files.list(dir)) {
+      assertThat(files).containsExactly(path);
+    }
+  }
+
+  @Test
+  void flush_whenDisabled_writesNothing() {
+    var path = dir.resolve("snapshot.json");
+    var store = new OpenF1SnapshotStore(new OpenF1SnapshotProperties(false, path, 100), objectMapper);
+    store.saveDrivers("k1", new Driver[]{new Driver("44", "Lewis Hamilton", "k1")});
+
+    store.flush();
+
+    assertThat(Files.exists(path)).isFalse();
+  }
+
+  @Test
+  void sessionQueries_beyondMaxEntries_areEvicted() throws Exception {
+    var path = dir.resolve("snapshot.json");
+    var store = new OpenF1SnapshotStore(new OpenF1SnapshotProperties(true, path, 2), objectMapper);
+
+    for (int year = 2000; year < 2010; year++) {
+      store.saveSessions(new SessionQuery("Race", String.valueOf(year), null), new Session[0], Instant.now());
+    }
+    store.flush();
+
+    var document = objectMapper.readValue(path.toFile(), OpenF1SnapshotStore.SnapshotDocument.class);
+    assertThat(document.sessions()).hasSizeLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void load_ignoresCorruptFile() throws Exception {
+    var path = dir.resolve("snapshot.json");
+    Files.writeString(path, "not json");
+    var store = new OpenF1SnapshotStore(new OpenF1SnapshotProperties(true, path, 100), objectMapper);
+
+    store.load();
+
+    assertThat(store.findDrivers("k1")).isEmpty();
+  }
+
+  private static Session session(String key) {
+    return new Session(
+        "circuitKey", "circuitShort", "AT", "cc", "Austria",
+        "2024-07-01T16:00:00+00:00", "2024-07-01T14:00:00+00:00", "+00:00", "Spielberg",
+        "mtgKey", key, "Race", "Race", "2024"
+    );
+  }
+}
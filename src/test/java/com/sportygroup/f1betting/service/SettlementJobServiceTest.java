@@ -0,0 +1,114 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.SettlementCheckpoint;
+import com.sportygroup.f1betting.entity.SettlementStatus;
+import com.sportygroup.f1betting.exceptions.SettlementConflictException;
+import com.sportygroup.f1betting.model.SettlementJob;
+import com.sportygroup.f1betting.repository.SettlementCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementJobServiceTest {
+
+  private static final Long EVENT_ID = 20L;
+  private static final Long WINNER = 44L;
+
+  @Mock private ChunkedSettlementService chunkedSettlementService;
+  @Mock private SettlementCheckpointRepository checkpointRepository;
+  @Mock private ExecutorService settlementExecutor;
+
+  private SettlementJobService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new SettlementJobService(chunkedSettlementService, checkpointRepository, settlementExecutor);
+    lenient().doAnswer(inv -> {
+      inv.<Runnable>getArgument(0).run();
+      return null;
+    }).when(settlementExecutor).execute(any(Runnable.class));
+  }
+
+  @Test
+  void submit_recordsWinner_andSettlesOnWorker() {
+    when(chunkedSettlementService.begin(EVENT_ID, WINNER)).thenReturn(checkpoint(SettlementStatus.IN_PROGRESS));
+
+    SettlementJob job = service.submit(EVENT_ID, WINNER);
+
+    assertThat(job).isEqualTo(new SettlementJob("job-20", EVENT_ID, WINNER, SettlementStatus.IN_PROGRESS));
+    verify(settlementExecutor).execute(any(Runnable.class));
+    verify(chunkedSettlementService).settle(EVENT_ID, WINNER);
+  }
+
+  @Test
+  void submit_forCompletedSettlement_doesNotScheduleWork() {
+    when(chunkedSettlementService.begin(EVENT_ID, WINNER)).thenReturn(checkpoint(SettlementStatus.COMPLETED));
+
+    assertThat(service.submit(EVENT_ID, WINNER).status()).isEqualTo(SettlementStatus.COMPLETED);
+
+    verifyNoInteractions(settlementExecutor);
+    verify(chunkedSettlementService, never()).settle(any(), any());
+  }
+
+  @Test
+  void submit_withConflictingWinner_failsOnTheRequest() {
+    when(chunkedSettlementService.begin(EVENT_ID, WINNER))
+        .thenThrow(new SettlementConflictException("already settled"));
+
+    assertThatThrownBy(() -> service.submit(EVENT_ID, WINNER))
+        .isInstanceOf(SettlementConflictException.class);
+
+    verifyNoInteractions(settlementExecutor);
+  }
+
+  @Test
+  void failedRun_marksCheckpointFailed() {
+    when(chunkedSettlementService.begin(EVENT_ID, WINNER)).thenReturn(checkpoint(SettlementStatus.IN_PROGRESS));
+    var failure = new IllegalStateException("db down");
+    when(chunkedSettlementService.settle(EVENT_ID, WINNER)).thenThrow(failure);
+
+    service.submit(EVENT_ID, WINNER);
+
+    verify(chunkedSettlementService).markFailed(EVENT_ID, failure);
+  }
+
+  @Test
+  void concurrentRunner_isNotReportedAsFailure() {
+    when(chunkedSettlementService.begin(EVENT_ID, WINNER)).thenReturn(checkpoint(SettlementStatus.IN_PROGRESS));
+    when(chunkedSettlementService.settle(EVENT_ID, WINNER))
+        .thenThrow(new OptimisticLockingFailureException("stale checkpoint"));
+
+    service.submit(EVENT_ID, WINNER);
+
+    verify(chunkedSettlementService, never()).markFailed(any(), any());
+  }
+
+  @Test
+  void resumeInterrupted_schedulesInProgressCheckpoints() {
+    when(checkpointRepository.findByStatus(SettlementStatus.IN_PROGRESS))
+        .thenReturn(List.of(checkpoint(SettlementStatus.IN_PROGRESS)));
+
+    service.resumeInterrupted();
+
+    verify(chunkedSettlementService).settle(EVENT_ID, WINNER);
+  }
+
+  private SettlementCheckpoint checkpoint(SettlementStatus status) {
+    return SettlementCheckpoint.builder()
+        .eventId(EVENT_ID)
+        .jobId("job-20")
+        .winnerDriverId(WINNER)
+        .status(status)
+        .build();
+  }
+}
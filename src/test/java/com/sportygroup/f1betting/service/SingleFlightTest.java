@@ -0,0 +1,71 @@
+package com.sportygroup.f1betting.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+  private final SingleFlight<String, String> flights = new SingleFlight<>();
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  void concurrentCallsForTheSameKey_shareOneExecution() {
+    var upstream = new CompletableFuture<String>();
+
+    var first = flights.execute("2025/Race", () -> counted(upstream));
+    var second = flights.execute("2025/Race", () -> counted(new CompletableFuture<>()));
+    var other = flights.execute("2024/Race", () -> counted(CompletableFuture.completedFuture("other")));
+
+    assertThat(calls).hasValue(2);
+    assertThat(first).isNotDone();
+    assertThat(other).isCompletedWithValue("other");
+
+    upstream.complete("events");
+    assertThat(first).isCompletedWithValue("events");
+    assertThat(second).isCompletedWithValue("events");
+  }
+
+  @Test
+  void completedFlight_isForgotten_soTheNextCallStartsAgain() {
+    flights.execute("key", () -> counted(CompletableFuture.completedFuture("a"))).join();
+    var next = flights.execute("key", () -> counted(CompletableFuture.completedFuture("b")));
+
+    assertThat(next).isCompletedWithValue("b");
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  void failure_isSharedAndNotRemembered() {
+    var upstream = new CompletableFuture<String>();
+    var first = flights.execute("key", () -> counted(upstream));
+    var second = flights.execute("key", () -> counted(upstream));
+
+    upstream.completeExceptionally(new IllegalStateException("boom"));
+
+    assertThat(first).isCompletedExceptionally();
+    assertThat(second).isCompletedExceptionally();
+    assertThat(flights.execute("key", () -> counted(CompletableFuture.completedFuture("ok")))).isCompletedWithValue("ok");
+  }
+
+  @Test
+  void cancellingOneCaller_doesNotAffectTheOthers() {
+    var upstream = new CompletableFuture<String>();
+    var first = flights.execute("key", () -> counted(upstream));
+    var second = flights.execute("key", () -> counted(upstream));
+
+    first.cancel(true);
+    upstream.complete("events");
+
+    assertThat(second).isCompletedWithValue("events");
+    assertThat(calls).hasValue(1);
+  }
+
+  private CompletableFuture<String> counted(CompletableFuture<String> result) {
+    calls.incrementAndGet();
+    return result;
+  }
+}
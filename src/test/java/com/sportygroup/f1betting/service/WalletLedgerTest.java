@@ -0,0 +1,210 @@
+package com.sportygroup.f1betting.service;
+
+import com.sportygroup.f1betting.entity.User;
+import com.sportygroup.f1betting.exceptions.UserNotFoundException;
+import com.sportygroup.f1betting.model.BalanceDeltas;
+import com.sportygroup.f1betting.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WalletLedgerTest {
+
+  private static final long USER_ID = 10L;
+
+  @Mock private UserRepository userRepository;
+
+  private WalletLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    ledger = new WalletLedger(userRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    lenient().when(userRepository.findById(USER_ID))
+        .thenReturn(Optional.of(User.builder().id(USER_ID).balance(10_000L).build()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void tryReserve_debitsBalance_andRefusesOvercommit() {
+    assertThat(ledger.tryReserve(USER_ID, 6_000L)).isTrue();
+    assertThat(ledger.tryReserve(USER_ID, 6_000L)).isFalse();
+    assertThat(ledger.balance(USER_ID)).isEqualTo(4_000L);
+
+    verify(userRepository, times(1)).findById(USER_ID);
+  }
+
+  @Test
+  void tryReserve_unknownUser_throws() {
+    when(userRepository.findById(99L)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> ledger.tryReserve(99L, 100L))
+        .isInstanceOf(UserNotFoundException.class);
+  }
+
+  @Test
+  void concurrentReservations_neverOvercommit() throws Exception {
+    var pool = Executors.newFixedThreadPool(8);
+    var reserved = new AtomicInteger();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      tasks.add(() -> {
+        if (ledger.tryReserve(USER_ID, 30L)) {
+          reserved.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    try {
+      pool.invokeAll(tasks);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertThat(reserved.get()).isEqualTo(333);
+    assertThat(ledger.balance(USER_ID)).isEqualTo(10L);
+  }
+
+  @Test
+  void flush_writesUnflushedReservationsOnce() {
+    ledger.tryReserve(USER_ID, 1_500L);
+    ledger.tryReserve(USER_ID, 500L);
+
+    ledger.flush();
+    ledger.flush();
+
+    var expected = new BalanceDeltas(1);
+    expected.add(USER_ID, -2_000L);
+    verify(userRepository, times(1)).addToBalances(expected);
+  }
+
+  @Test
+  void flush_keepsDeltas_whenWriteFails() {
+    ledger.tryReserve(USER_ID, 1_500L);
+    doThrow(new IllegalStateException("db down")).doNothing()
+        .when(userRepository).addToBalances(any());
+
+    ledger.flush();
+    ledger.flush();
+
+    var expected = new BalanceDeltas(1);
+    expected.add(USER_ID, -1_500L);
+    verify(userRepository, times(2)).addToBalances(expected);
+  }
+
+  @Test
+  void rolledBackReservation_isReleased() {
+    TransactionSynchronizationManager.initSynchronization();
+    ledger.tryReserve(USER_ID, 4_000L);
+    assertThat(ledger.balance(USER_ID)).isEqualTo(6_000L);
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertThat(ledger.balance(USER_ID)).isEqualTo(10_000L);
+    ledger.flush();
+    verify(userRepository, never()).addToBalances(any());
+  }
+
+  @Test
+  void settlementCredits_areAppliedOnlyAfterCommit() {
+    ledger.tryReserve(USER_ID, 1_000L);
+    var credits = new BalanceDeltas(1);
+    credits.add(USER_ID, 2_500L);
+
+    TransactionSynchronizationManager.initSynchronization();
+    ledger.applyAfterCommit(credits);
+    assertThat(ledger.balance(USER_ID)).isEqualTo(9_000L);
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    assertThat(ledger.balance(USER_ID)).isEqualTo(11_500L);
+  }
+
+  @Test
+  void walletLoad_waitsForCreditInFlight_soTheCommittedCreditIsNotCountedTwice() throws Exception {
+    var credits = new BalanceDeltas(1);
+    credits.add(USER_ID, 2_500L);
+    TransactionSynchronizationManager.initSynchronization();
+    ledger.applyAfterCommit(credits);
+    // users already holds the credit once the settlement commits, before it is mirrored
+    when(userRepository.findById(USER_ID))
+        .thenReturn(Optional.of(User.builder().id(USER_ID).balance(12_500L).build()));
+
+    var balance = new CompletableFuture<Long>();
+    var loader = new Thread(() -> balance.complete(ledger.balance(USER_ID)));
+    loader.start();
+    await(loader, Thread.State.WAITING);
+    verify(userRepository, never()).findById(USER_ID);
+
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+    assertThat(balance.get(5, TimeUnit.SECONDS)).isEqualTo(12_500L);
+  }
+
+  @Test
+  void walletLoad_startsOver_whenACreditIsWrittenWhileReading() {
+    var credits = new BalanceDeltas(1);
+    credits.add(USER_ID, 2_500L);
+    when(userRepository.findById(USER_ID))
+        .thenAnswer(inv -> {
+          // the settlement writes and commits after this read took its snapshot
+          ledger.applyAfterCommit(credits);
+          return Optional.of(User.builder().id(USER_ID).balance(10_000L).build());
+        })
+        .thenReturn(Optional.of(User.builder().id(USER_ID).balance(12_500L).build()));
+
+    assertThat(ledger.balance(USER_ID)).isEqualTo(12_500L);
+    verify(userRepository, times(2)).findById(USER_ID);
+  }
+
+  @Test
+  void rebuild_skipsWalletsWithCreditsInFlight() {
+    var credits = new BalanceDeltas(1);
+    credits.add(USER_ID, 2_500L);
+    TransactionSynchronizationManager.initSynchronization();
+    ledger.applyAfterCommit(credits);
+    when(userRepository.findAll())
+        .thenReturn(List.of(User.builder().id(USER_ID).balance(12_500L).build()));
+
+    ledger.rebuild();
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    TransactionSynchronizationManager.clearSynchronization();
+    when(userRepository.findById(USER_ID))
+        .thenReturn(Optional.of(User.builder().id(USER_ID).balance(12_500L).build()));
+
+    assertThat(ledger.balance(USER_ID)).isEqualTo(12_500L);
+  }
+
+  private static void await(Thread thread, Thread.State state) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (thread.getState() != state) {
+      assertThat(System.nanoTime()).as("thread state %s", state).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+}